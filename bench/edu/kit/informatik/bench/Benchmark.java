@@ -0,0 +1,56 @@
+package edu.kit.informatik.bench;
+
+/**
+ * A benchmarked operation on a generated product structure.
+ *
+ * The structure is passed once per trial, the operation may be prepared before every invocation,
+ * and only the invocation itself is measured.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+public abstract class Benchmark {
+    private final String name;
+
+    /**
+     * Instantiates a new Benchmark.
+     *
+     * @param name the name the results are reported under
+     */
+    protected Benchmark(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Gets the name the results are reported under.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Sets up a trial on a generated product structure. Not measured.
+     *
+     * @param graph the product structure
+     * @throws Exception when the product structure cannot be set up
+     */
+    public abstract void setUp(GeneratedGraph graph) throws Exception;
+
+    /**
+     * Prepares the next invocation, e.g. restores the state the last invocation has consumed. Not measured.
+     *
+     * @throws Exception when the state cannot be restored
+     */
+    public void prepare() throws Exception {
+    }
+
+    /**
+     * Runs the measured operation once.
+     *
+     * @return a value derived from the result, consumed by the runner so the operation cannot be optimized away
+     * @throws Exception when the operation fails
+     */
+    public abstract long run() throws Exception;
+}
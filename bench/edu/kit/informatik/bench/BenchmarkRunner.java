@@ -0,0 +1,337 @@
+package edu.kit.informatik.bench;
+
+import edu.kit.informatik.Terminal;
+import edu.kit.informatik.ui.CommandLineBenchmarks;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Runs the benchmarks on every combination of shape and size and exports the results as JSON.
+ *
+ * Like JMH every trial runs warmup iterations first, then measurement iterations, each invoking the operation
+ * until the iteration time has passed. The score is the mean time per operation over the measurement iterations,
+ * the error the half-width of its 99.9% confidence interval. The exported JSON follows the layout of the JMH
+ * JSON result format, so it can be fed to the same trend tracking.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+public final class BenchmarkRunner {
+    private static final String SHAPES_ARGUMENT = "--shapes=";
+    private static final String SIZES_ARGUMENT = "--sizes=";
+    private static final String WARMUP_ARGUMENT = "--warmup=";
+    private static final String ITERATIONS_ARGUMENT = "--iterations=";
+    private static final String ITERATION_MILLIS_ARGUMENT = "--iteration-millis=";
+    private static final String INCLUDE_ARGUMENT = "--include=";
+    private static final String SEED_ARGUMENT = "--seed=";
+    private static final String OUTPUT_ARGUMENT = "--output=";
+    private static final String LIST_SEPARATOR = ",";
+    private static final String INVALID_ARGUMENT_MESSAGE = "invalid argument: %s";
+    private static final String RESULT_FORMAT = "%-18s %-10s %8d %14.3f +- %10.3f us/op";
+    private static final String DEFAULT_OUTPUT = "bench_output.json";
+    private static final int[] DEFAULT_SIZES = {100, 1000};
+    private static final int DEFAULT_WARMUP = 3;
+    private static final int DEFAULT_ITERATIONS = 5;
+    private static final long DEFAULT_ITERATION_MILLIS = 500;
+    private static final long DEFAULT_SEED = 1;
+    private static final double NANOS_PER_MICRO = 1000;
+    private static final long NANOS_PER_MILLI = 1000000;
+    /**
+     * The quantile of the standard normal distribution bounding the 99.9% confidence interval.
+     */
+    private static final double CONFIDENCE_QUANTILE = 3.291;
+
+    private final List<GraphShape> shapes;
+    private final List<Integer> sizes;
+    private final List<Benchmark> benchmarks;
+    private int warmupIterations;
+    private int measurementIterations;
+    private long iterationNanos;
+    private long seed;
+    private String outputFileName;
+    /**
+     * Sums up the values of all invocations, so no invocation can be optimized away.
+     */
+    private long consumed;
+
+    /**
+     * Instantiates a new BenchmarkRunner with the default settings and all benchmarks.
+     */
+    private BenchmarkRunner() {
+        this.shapes = new ArrayList<>();
+        this.sizes = new ArrayList<>();
+        this.benchmarks = new ArrayList<>();
+        this.warmupIterations = DEFAULT_WARMUP;
+        this.measurementIterations = DEFAULT_ITERATIONS;
+        this.iterationNanos = DEFAULT_ITERATION_MILLIS * NANOS_PER_MILLI;
+        this.seed = DEFAULT_SEED;
+        this.outputFileName = DEFAULT_OUTPUT;
+
+        Collections.addAll(shapes, GraphShape.values());
+        for (int size : DEFAULT_SIZES) {
+            sizes.add(size);
+        }
+        benchmarks.addAll(WorkbenchBenchmarks.create());
+        benchmarks.addAll(CommandLineBenchmarks.create());
+    }
+
+    /**
+     * The entry point of the benchmarks.
+     *
+     * Passing --shapes=CHAIN,WIDE,... and --sizes=100,1000,... selects the generated product structures,
+     * --include=name runs only the benchmarks whose name contains the given string.
+     * Passing --warmup=n, --iterations=n and --iteration-millis=ms sets the iterations per trial,
+     * --seed=n the seed of the generators and --output=file the file the JSON results are written to.
+     *
+     * @param args the command line arguments
+     */
+    public static void main(String[] args) {
+        BenchmarkRunner runner = new BenchmarkRunner();
+        for (String arg : args) {
+            try {
+                runner.parseArgument(arg);
+            } catch (IllegalArgumentException e) {
+                Terminal.printError(String.format(INVALID_ARGUMENT_MESSAGE, arg));
+                Terminal.flush();
+                return;
+            }
+        }
+
+        try {
+            runner.writeResults(runner.runAll());
+        } catch (Exception e) {
+            Terminal.printError(e.toString());
+        }
+        Terminal.flush();
+    }
+
+    /**
+     * Applies a command line argument to the settings.
+     *
+     * @param arg the argument
+     * @throws IllegalArgumentException when the argument is invalid
+     */
+    private void parseArgument(String arg) {
+        if (arg.startsWith(SHAPES_ARGUMENT)) {
+            shapes.clear();
+            for (String shape : arg.substring(SHAPES_ARGUMENT.length()).split(LIST_SEPARATOR)) {
+                shapes.add(GraphShape.valueOf(shape.toUpperCase(Locale.ROOT)));
+            }
+        } else if (arg.startsWith(SIZES_ARGUMENT)) {
+            sizes.clear();
+            for (String size : arg.substring(SIZES_ARGUMENT.length()).split(LIST_SEPARATOR)) {
+                sizes.add(parsePositive(size));
+            }
+        } else if (arg.startsWith(INCLUDE_ARGUMENT)) {
+            String include = arg.substring(INCLUDE_ARGUMENT.length());
+            benchmarks.removeIf(benchmark -> !benchmark.getName().contains(include));
+        } else if (arg.startsWith(WARMUP_ARGUMENT)) {
+            warmupIterations = Integer.parseInt(arg.substring(WARMUP_ARGUMENT.length()));
+        } else if (arg.startsWith(ITERATIONS_ARGUMENT)) {
+            measurementIterations = parsePositive(arg.substring(ITERATIONS_ARGUMENT.length()));
+        } else if (arg.startsWith(ITERATION_MILLIS_ARGUMENT)) {
+            iterationNanos = parsePositive(arg.substring(ITERATION_MILLIS_ARGUMENT.length())) * NANOS_PER_MILLI;
+        } else if (arg.startsWith(SEED_ARGUMENT)) {
+            seed = Long.parseLong(arg.substring(SEED_ARGUMENT.length()));
+        } else if (arg.startsWith(OUTPUT_ARGUMENT)) {
+            outputFileName = arg.substring(OUTPUT_ARGUMENT.length());
+        } else {
+            throw new IllegalArgumentException(arg);
+        }
+    }
+
+    /**
+     * Runs a trial of every benchmark on every selected product structure.
+     *
+     * @return the results of all trials
+     * @throws Exception when a benchmark fails
+     */
+    private List<Result> runAll() throws Exception {
+        List<Result> results = new ArrayList<>();
+        for (GraphShape shape : shapes) {
+            for (int size : sizes) {
+                GeneratedGraph graph = shape.generate(size, new Random(seed));
+                for (Benchmark benchmark : benchmarks) {
+                    Result result = runTrial(benchmark, shape, size, graph);
+                    Terminal.printLine(String.format(Locale.ROOT, RESULT_FORMAT, benchmark.getName(), shape, size,
+                            result.getScore(), result.getScoreError()));
+                    Terminal.flush();
+                    results.add(result);
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Runs the warmup and measurement iterations of a benchmark on a product structure.
+     *
+     * @param benchmark the benchmark
+     * @param shape the shape of the product structure
+     * @param size the size of the product structure
+     * @param graph the product structure
+     * @return the result of the trial
+     * @throws Exception when the benchmark fails
+     */
+    private Result runTrial(Benchmark benchmark, GraphShape shape, int size, GeneratedGraph graph)
+            throws Exception {
+        benchmark.setUp(graph);
+        for (int i = 0; i < warmupIterations; i++) {
+            runIteration(benchmark);
+        }
+        double[] samples = new double[measurementIterations];
+        for (int i = 0; i < measurementIterations; i++) {
+            samples[i] = runIteration(benchmark);
+        }
+        return new Result(benchmark.getName(), shape, size, samples);
+    }
+
+    /**
+     * Invokes a benchmark until the iteration time has passed, measuring only the invocations themselves.
+     *
+     * @param benchmark the benchmark
+     * @return the mean time per invocation in microseconds
+     * @throws Exception when the benchmark fails
+     */
+    private double runIteration(Benchmark benchmark) throws Exception {
+        long measuredNanos = 0;
+        long invocations = 0;
+        long iterationEnd = System.nanoTime() + iterationNanos;
+
+        do {
+            benchmark.prepare();
+            long start = System.nanoTime();
+            consumed += benchmark.run();
+            long end = System.nanoTime();
+            measuredNanos += end - start;
+            invocations++;
+        } while (System.nanoTime() < iterationEnd);
+        return measuredNanos / NANOS_PER_MICRO / invocations;
+    }
+
+    /**
+     * Writes the results in the JMH JSON result format.
+     *
+     * @param results the results
+     * @throws IOException when the output file cannot be written
+     */
+    private void writeResults(List<Result> results) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(Paths.get(outputFileName), StandardCharsets.UTF_8)) {
+            writer.write("[\n");
+            for (int i = 0; i < results.size(); i++) {
+                writer.write(i > 0 ? ",\n" : "");
+                results.get(i).writeTo(writer, warmupIterations, measurementIterations, iterationNanos);
+            }
+            writer.write("\n]\n");
+        }
+        // the consumed values are never used, but the JIT cannot know that
+        if (consumed == Long.MIN_VALUE) {
+            Terminal.printLine(Long.toString(consumed));
+        }
+    }
+
+    /**
+     * Parses a positive int.
+     *
+     * @param value the string representation of the int
+     * @return the int
+     * @throws NumberFormatException when the string is no positive int
+     */
+    private static int parsePositive(String value) {
+        int result = Integer.parseInt(value);
+        if (result <= 0) {
+            throw new NumberFormatException(value);
+        }
+        return result;
+    }
+
+    /**
+     * The measured result of a trial.
+     */
+    private static final class Result {
+        private final String benchmark;
+        private final GraphShape shape;
+        private final int size;
+        private final double[] samples;
+
+        /**
+         * Instantiates a new Result.
+         *
+         * @param benchmark the name of the benchmark
+         * @param shape the shape of the product structure
+         * @param size the size of the product structure
+         * @param samples the mean time per operation of every measurement iteration in microseconds
+         */
+        private Result(String benchmark, GraphShape shape, int size, double[] samples) {
+            this.benchmark = benchmark;
+            this.shape = shape;
+            this.size = size;
+            this.samples = samples;
+        }
+
+        /**
+         * Gets the mean time per operation.
+         *
+         * @return the mean time in microseconds
+         */
+        private double getScore() {
+            double sum = 0;
+            for (double sample : samples) {
+                sum += sample;
+            }
+            return sum / samples.length;
+        }
+
+        /**
+         * Gets the half-width of the 99.9% confidence interval of the mean.
+         *
+         * @return the half-width in microseconds, 0 for a single measurement iteration
+         */
+        private double getScoreError() {
+            if (samples.length < 2) {
+                return 0;
+            }
+            double score = getScore();
+            double squares = 0;
+            for (double sample : samples) {
+                squares += (sample - score) * (sample - score);
+            }
+            double deviation = Math.sqrt(squares / (samples.length - 1));
+            return CONFIDENCE_QUANTILE * deviation / Math.sqrt(samples.length);
+        }
+
+        /**
+         * Writes the result as JSON object.
+         *
+         * @param writer the writer
+         * @param warmupIterations the amount of warmup iterations
+         * @param measurementIterations the amount of measurement iterations
+         * @param iterationNanos the time of an iteration in nanoseconds
+         * @throws IOException when the writer cannot be written
+         */
+        private void writeTo(Writer writer, int warmupIterations, int measurementIterations, long iterationNanos)
+                throws IOException {
+            String iterationTime = (iterationNanos / NANOS_PER_MILLI) + " ms";
+            writer.write("  {\"benchmark\":\"" + benchmark + "\",\"mode\":\"avgt\",\"threads\":1,\"forks\":0");
+            writer.write(",\"warmupIterations\":" + warmupIterations + ",\"warmupTime\":\"" + iterationTime + "\"");
+            writer.write(",\"measurementIterations\":" + measurementIterations
+                    + ",\"measurementTime\":\"" + iterationTime + "\"");
+            writer.write(",\"params\":{\"shape\":\"" + shape + "\",\"size\":\"" + size + "\"}");
+            writer.write(",\"primaryMetric\":{\"score\":" + getScore() + ",\"scoreError\":" + getScoreError()
+                    + ",\"scoreUnit\":\"us/op\",\"rawData\":[[");
+            for (int i = 0; i < samples.length; i++) {
+                writer.write((i > 0 ? "," : "") + samples[i]);
+            }
+            writer.write("]]}}");
+        }
+    }
+}
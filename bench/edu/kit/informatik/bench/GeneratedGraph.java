@@ -0,0 +1,164 @@
+package edu.kit.informatik.bench;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * A synthetic product structure: BOMs given by their name and part entries, and the end products among them.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+public final class GeneratedGraph {
+    private static final char FIRST_LETTER = 'a';
+    private static final int LETTER_COUNT = 26;
+
+    private final List<String> bomNames;
+    private final List<Map<String, Long>> bomParts;
+    private final List<String> roots;
+
+    /**
+     * Instantiates a new, empty GeneratedGraph.
+     */
+    GeneratedGraph() {
+        this.bomNames = new ArrayList<>();
+        this.bomParts = new ArrayList<>();
+        this.roots = new ArrayList<>();
+    }
+
+    /**
+     * Adds a BOM.
+     *
+     * @param name the name of the BOM
+     * @param parts the names of the parts and their respective amount
+     */
+    void addBOM(String name, Map<String, Long> parts) {
+        bomNames.add(name);
+        bomParts.add(parts);
+    }
+
+    /**
+     * Marks a BOM as end product, which is used by no other BOM.
+     *
+     * @param name the name of the BOM
+     */
+    void addRoot(String name) {
+        roots.add(name);
+    }
+
+    /**
+     * Gets the amount of BOMs.
+     *
+     * @return the amount of BOMs
+     */
+    public int size() {
+        return bomNames.size();
+    }
+
+    /**
+     * Gets the name of a BOM.
+     *
+     * @param index the index of the BOM
+     * @return the name
+     */
+    public String getName(int index) {
+        return bomNames.get(index);
+    }
+
+    /**
+     * Gets the part entries of a BOM.
+     *
+     * @param index the index of the BOM
+     * @return the names of the parts and their respective amount
+     */
+    public Map<String, Long> getParts(int index) {
+        return bomParts.get(index);
+    }
+
+    /**
+     * Gets the end products.
+     *
+     * @return the names of the end products
+     */
+    public List<String> getRoots() {
+        return Collections.unmodifiableList(roots);
+    }
+
+    /**
+     * Gets the names of all components, the parts that are no BOM.
+     *
+     * @return the names of the components in the order they are first used
+     */
+    public List<String> getComponentNames() {
+        Set<String> components = new LinkedHashSet<>();
+        for (Map<String, Long> parts : bomParts) {
+            components.addAll(parts.keySet());
+        }
+        components.removeAll(new HashSet<>(bomNames));
+        return new ArrayList<>(components);
+    }
+
+    /**
+     * Gets the indices of all BOMs in random order, so that a BOM is added before, between or after its parts.
+     *
+     * @param random the source of randomness
+     * @return the shuffled indices
+     */
+    public List<Integer> getShuffledIndices(Random random) {
+        List<Integer> indices = new ArrayList<>();
+        for (int i = 0; i < size(); i++) {
+            indices.add(i);
+        }
+        Collections.shuffle(indices, random);
+        return indices;
+    }
+
+    /**
+     * Formats a BOM as the parameters of the addAssembly instruction.
+     *
+     * @param index the index of the BOM
+     * @return the parameters
+     */
+    public String toAssemblyParameters(int index) {
+        StringBuilder builder = new StringBuilder(getName(index)).append('=');
+        String separator = "";
+        for (Map.Entry<String, Long> part : getParts(index).entrySet()) {
+            builder.append(separator).append(part.getValue()).append(':').append(part.getKey());
+            separator = ";";
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Creates the name of a generated assembly, since names may only consist of letters.
+     *
+     * @param prefix the upper case prefix denoting the role of the assembly
+     * @param number the number of the assembly within its role
+     * @return the name
+     */
+    static String name(char prefix, int number) {
+        StringBuilder builder = new StringBuilder();
+        int remaining = number;
+        do {
+            builder.append((char) (FIRST_LETTER + remaining % LETTER_COUNT));
+            remaining /= LETTER_COUNT;
+        } while (remaining > 0);
+        return builder.append(prefix).reverse().toString();
+    }
+
+    /**
+     * Creates an empty map of part entries keeping the order they are put in.
+     *
+     * @return the map
+     */
+    static Map<String, Long> newParts() {
+        return new LinkedHashMap<>();
+    }
+}
@@ -0,0 +1,160 @@
+package edu.kit.informatik.bench;
+
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * The shapes of synthetic product structures the benchmarks run on.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+public enum GraphShape {
+    /**
+     * A single deep chain, every BOM uses the next one and a component of its own.
+     */
+    CHAIN {
+        @Override
+        GeneratedGraph generate(int size, Random random) {
+            GeneratedGraph graph = new GeneratedGraph();
+            for (int i = 0; i < size; i++) {
+                Map<String, Long> parts = GeneratedGraph.newParts();
+                if (i + 1 < size) {
+                    parts.put(GeneratedGraph.name(ASSEMBLY_PREFIX, i + 1), 1L);
+                }
+                parts.put(GeneratedGraph.name(COMPONENT_PREFIX, i), randomAmount(random));
+                graph.addBOM(GeneratedGraph.name(ASSEMBLY_PREFIX, i), parts);
+            }
+            graph.addRoot(GeneratedGraph.name(ASSEMBLY_PREFIX, 0));
+            return graph;
+        }
+    },
+    /**
+     * A single flat BOM using all components directly.
+     */
+    WIDE {
+        @Override
+        GeneratedGraph generate(int size, Random random) {
+            GeneratedGraph graph = new GeneratedGraph();
+            Map<String, Long> parts = GeneratedGraph.newParts();
+            for (int i = 0; i < size; i++) {
+                parts.put(GeneratedGraph.name(COMPONENT_PREFIX, i), randomAmount(random));
+            }
+            String root = GeneratedGraph.name(ASSEMBLY_PREFIX, 0);
+            graph.addBOM(root, parts);
+            graph.addRoot(root);
+            return graph;
+        }
+    },
+    /**
+     * Layers of BOMs where every BOM uses two neighbouring BOMs of the next layer,
+     * so the amount of paths to the bottom doubles with every layer.
+     */
+    DIAMOND {
+        @Override
+        GeneratedGraph generate(int size, Random random) {
+            GeneratedGraph graph = new GeneratedGraph();
+            int layerCount = Math.max(1, (size - 1) / DIAMOND_WIDTH);
+            String root = GeneratedGraph.name(PRODUCT_PREFIX, 0);
+            Map<String, Long> rootParts = GeneratedGraph.newParts();
+            for (int j = 0; j < DIAMOND_WIDTH; j++) {
+                rootParts.put(GeneratedGraph.name(ASSEMBLY_PREFIX, j), 1L);
+            }
+            graph.addBOM(root, rootParts);
+            graph.addRoot(root);
+
+            for (int layer = 0; layer < layerCount; layer++) {
+                for (int j = 0; j < DIAMOND_WIDTH; j++) {
+                    Map<String, Long> parts = GeneratedGraph.newParts();
+                    if (layer + 1 < layerCount) {
+                        int next = (layer + 1) * DIAMOND_WIDTH;
+                        parts.put(GeneratedGraph.name(ASSEMBLY_PREFIX, next + j), 1L);
+                        parts.put(GeneratedGraph.name(ASSEMBLY_PREFIX, next + (j + 1) % DIAMOND_WIDTH), 1L);
+                    } else {
+                        parts.put(GeneratedGraph.name(COMPONENT_PREFIX, j), randomAmount(random));
+                    }
+                    graph.addBOM(GeneratedGraph.name(ASSEMBLY_PREFIX, layer * DIAMOND_WIDTH + j), parts);
+                }
+            }
+            return graph;
+        }
+    },
+    /**
+     * A catalogue of products built from shared subassemblies and a pool of standard components,
+     * where a few popular subassemblies and components are used far more often than the rest.
+     */
+    CATALOGUE {
+        @Override
+        GeneratedGraph generate(int size, Random random) {
+            GeneratedGraph graph = new GeneratedGraph();
+            boolean[] used = new boolean[size];
+
+            // a BOM only uses BOMs with a higher number, so the structure is acyclic
+            for (int i = size - 1; i >= 0; i--) {
+                Map<String, Long> parts = GeneratedGraph.newParts();
+                int partCount = CATALOGUE_PARTS_MIN + random.nextInt(CATALOGUE_PARTS_MAX - CATALOGUE_PARTS_MIN + 1);
+                for (int j = 0; j < partCount; j++) {
+                    int higherCount = size - i - 1;
+                    if (higherCount > 0 && random.nextDouble() < CATALOGUE_ASSEMBLY_SHARE) {
+                        int bom = i + 1 + skewedIndex(random, higherCount);
+                        used[bom] = true;
+                        parts.putIfAbsent(GeneratedGraph.name(ASSEMBLY_PREFIX, bom), randomAmount(random));
+                    } else {
+                        int component = skewedIndex(random, size);
+                        parts.putIfAbsent(GeneratedGraph.name(COMPONENT_PREFIX, component), randomAmount(random));
+                    }
+                }
+                graph.addBOM(GeneratedGraph.name(ASSEMBLY_PREFIX, i), parts);
+            }
+            for (int i = 0; i < size; i++) {
+                if (!used[i]) {
+                    graph.addRoot(GeneratedGraph.name(ASSEMBLY_PREFIX, i));
+                }
+            }
+            return graph;
+        }
+    };
+
+    private static final char ASSEMBLY_PREFIX = 'S';
+    private static final char COMPONENT_PREFIX = 'C';
+    private static final char PRODUCT_PREFIX = 'P';
+    private static final int AMOUNT_MAX = 9;
+    private static final int DIAMOND_WIDTH = 4;
+    private static final int CATALOGUE_PARTS_MIN = 2;
+    private static final int CATALOGUE_PARTS_MAX = 8;
+    private static final double CATALOGUE_ASSEMBLY_SHARE = 0.4;
+    /**
+     * The exponent skewing the choice of shared parts, the higher the more the first parts are preferred.
+     */
+    private static final double CATALOGUE_SKEW = 3;
+
+    /**
+     * Generates a product structure of this shape.
+     *
+     * @param size the amount of BOMs, or of components for a flat BOM
+     * @param random the source of randomness
+     * @return the generated product structure
+     */
+    abstract GeneratedGraph generate(int size, Random random);
+
+    /**
+     * Chooses a small random part amount, so the exploded counts of deep structures grow slowly.
+     *
+     * @param random the source of randomness
+     * @return the amount
+     */
+    private static long randomAmount(Random random) {
+        return 1 + random.nextInt(AMOUNT_MAX);
+    }
+
+    /**
+     * Chooses an index preferring the lower ones.
+     *
+     * @param random the source of randomness
+     * @param count the amount of indices to choose from
+     * @return the index
+     */
+    private static int skewedIndex(Random random, int count) {
+        return (int) (count * Math.pow(random.nextDouble(), CATALOGUE_SKEW));
+    }
+}
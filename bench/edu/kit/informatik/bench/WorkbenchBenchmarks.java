@@ -0,0 +1,162 @@
+package edu.kit.informatik.bench;
+
+import edu.kit.informatik.logic.AssemblyType;
+import edu.kit.informatik.logic.Workbench;
+import edu.kit.informatik.logic.exceptions.LogicException;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The benchmarks of the workbench: explosions, cycle checked inserts and removals.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+public final class WorkbenchBenchmarks {
+    private static final long ORDER_SEED = 17;
+
+    /**
+     * Utility class.
+     */
+    private WorkbenchBenchmarks() {
+    }
+
+    /**
+     * Creates all benchmarks of the workbench.
+     *
+     * @return the benchmarks
+     */
+    public static List<Benchmark> create() {
+        return Arrays.asList(new Explosion("explosionCached", false),
+                new Explosion("explosionFrozen", true),
+                new Insert(),
+                new Removal());
+    }
+
+    /**
+     * Adds all BOMs of a product structure to a workbench in the given order.
+     *
+     * @param workbench the workbench
+     * @param graph the product structure
+     * @param order the order the BOMs are added in
+     * @throws LogicException when a BOM cannot be added
+     */
+    private static void addAll(Workbench workbench, GeneratedGraph graph, List<Integer> order)
+            throws LogicException {
+        for (int index : order) {
+            workbench.addBOM(graph.getName(index), graph.getParts(index));
+        }
+    }
+
+    /**
+     * Explodes the components of every end product. The cached variant is answered from the explosion cache
+     * after the first invocation, the frozen variant explodes every end product in a single pass each time.
+     */
+    private static final class Explosion extends Benchmark {
+        private final boolean frozen;
+        private Workbench workbench;
+        private List<String> roots;
+
+        /**
+         * Instantiates a new Explosion.
+         *
+         * @param name the name of the benchmark
+         * @param frozen whether the explosions are answered from the frozen snapshot
+         */
+        private Explosion(String name, boolean frozen) {
+            super(name);
+            this.frozen = frozen;
+        }
+
+        @Override
+        public void setUp(GeneratedGraph graph) throws LogicException {
+            workbench = new Workbench();
+            addAll(workbench, graph, graph.getShuffledIndices(new Random(ORDER_SEED)));
+            if (frozen) {
+                workbench.freeze();
+            }
+            roots = graph.getRoots();
+        }
+
+        @Override
+        public long run() throws LogicException {
+            long result = 0;
+            for (String root : roots) {
+                result += workbench.getPartCountsOf(root, AssemblyType.COMPONENT).size();
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Adds all BOMs to an empty workbench in random order, so most inserts have to be checked for cycles
+     * and reordered.
+     */
+    private static final class Insert extends Benchmark {
+        private GeneratedGraph graph;
+        private List<Integer> order;
+        private Workbench workbench;
+
+        /**
+         * Instantiates a new Insert.
+         */
+        private Insert() {
+            super("insert");
+        }
+
+        @Override
+        public void setUp(GeneratedGraph graph) {
+            this.graph = graph;
+            this.order = graph.getShuffledIndices(new Random(ORDER_SEED));
+        }
+
+        @Override
+        public void prepare() {
+            workbench = new Workbench();
+        }
+
+        @Override
+        public long run() throws LogicException {
+            addAll(workbench, graph, order);
+            return workbench.getRevision();
+        }
+    }
+
+    /**
+     * Removes all BOMs of a product structure in random order.
+     */
+    private static final class Removal extends Benchmark {
+        private GeneratedGraph graph;
+        private List<Integer> order;
+        private Workbench workbench;
+
+        /**
+         * Instantiates a new Removal.
+         */
+        private Removal() {
+            super("removal");
+        }
+
+        @Override
+        public void setUp(GeneratedGraph graph) {
+            this.graph = graph;
+            this.order = graph.getShuffledIndices(new Random(ORDER_SEED));
+        }
+
+        @Override
+        public void prepare() throws LogicException {
+            workbench = new Workbench();
+            addAll(workbench, graph, order);
+        }
+
+        @Override
+        public long run() throws LogicException {
+            for (int index : order) {
+                workbench.removeBOM(graph.getName(index));
+            }
+            return workbench.getRevision();
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package edu.kit.informatik.bench;
+
+import edu.kit.informatik.Terminal;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Generates command scripts simulating the load of a running system, to be replayed by the WorkloadReplay.
+ *
+ * A script first adds all BOMs of a generated product structure, followed by a mix of queries and mutations.
+ * The assemblies they address follow a Zipf distribution over a random ranking of all BOMs and components,
+ * so a few hot assemblies receive most of the load while the rest is addressed rarely.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+public final class WorkloadGenerator {
+    private static final String SHAPE_ARGUMENT = "--shape=";
+    private static final String SIZE_ARGUMENT = "--size=";
+    private static final String LINES_ARGUMENT = "--lines=";
+    private static final String READ_SHARE_ARGUMENT = "--read-share=";
+    private static final String SKEW_ARGUMENT = "--skew=";
+    private static final String SEED_ARGUMENT = "--seed=";
+    private static final String OUTPUT_ARGUMENT = "--output=";
+    private static final String INVALID_ARGUMENT_MESSAGE = "invalid argument: %s";
+    private static final String QUIT_LINE = "quit";
+    private static final char LINE_SEPARATOR = '\n';
+    private static final int DEFAULT_SIZE = 1000;
+    private static final int DEFAULT_LINES = 100000;
+    private static final double DEFAULT_READ_SHARE = 0.9;
+    private static final double DEFAULT_SKEW = 1;
+    private static final long DEFAULT_SEED = 1;
+    private static final int AMOUNT_MAX = 9;
+    /**
+     * The cumulative shares of getComponents, getAssemblies and printAssembly among the queries,
+     * the remaining queries are getUsages.
+     */
+    private static final double[] QUERY_SHARES = {0.4, 0.6, 0.9};
+
+    private GraphShape shape;
+    private int size;
+    private int lineCount;
+    private double readShare;
+    private double skew;
+    private long seed;
+    private String outputFileName;
+
+    /**
+     * Instantiates a new WorkloadGenerator with the default settings.
+     */
+    private WorkloadGenerator() {
+        this.shape = GraphShape.CATALOGUE;
+        this.size = DEFAULT_SIZE;
+        this.lineCount = DEFAULT_LINES;
+        this.readShare = DEFAULT_READ_SHARE;
+        this.skew = DEFAULT_SKEW;
+        this.seed = DEFAULT_SEED;
+        this.outputFileName = null;
+    }
+
+    /**
+     * The entry point of the generator.
+     *
+     * Passing --shape=CATALOGUE and --size=n selects the product structure that is added first,
+     * --lines=n the amount of lines following it, --read-share=0.9 the share of queries among them
+     * and --skew=1 the exponent of the Zipf distribution of the addressed assemblies.
+     * Passing --seed=n sets the seed, --output=file writes the script to the file instead of the terminal.
+     *
+     * @param args the command line arguments
+     */
+    public static void main(String[] args) {
+        WorkloadGenerator generator = new WorkloadGenerator();
+        for (String arg : args) {
+            try {
+                generator.parseArgument(arg);
+            } catch (IllegalArgumentException e) {
+                Terminal.printError(String.format(INVALID_ARGUMENT_MESSAGE, arg));
+                Terminal.flush();
+                return;
+            }
+        }
+
+        List<String> lines = generator.generate();
+        try {
+            if (generator.outputFileName == null) {
+                for (String line : lines) {
+                    Terminal.printLine(line);
+                }
+            } else {
+                try (Writer writer = Files.newBufferedWriter(Paths.get(generator.outputFileName),
+                        StandardCharsets.UTF_8)) {
+                    for (String line : lines) {
+                        writer.write(line);
+                        writer.write(LINE_SEPARATOR);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            Terminal.printError(e.toString());
+        }
+        Terminal.flush();
+    }
+
+    /**
+     * Applies a command line argument to the settings.
+     *
+     * @param arg the argument
+     * @throws IllegalArgumentException when the argument is invalid
+     */
+    private void parseArgument(String arg) {
+        if (arg.startsWith(SHAPE_ARGUMENT)) {
+            shape = GraphShape.valueOf(arg.substring(SHAPE_ARGUMENT.length()).toUpperCase(Locale.ROOT));
+        } else if (arg.startsWith(SIZE_ARGUMENT)) {
+            size = parsePositive(arg.substring(SIZE_ARGUMENT.length()));
+        } else if (arg.startsWith(LINES_ARGUMENT)) {
+            lineCount = parsePositive(arg.substring(LINES_ARGUMENT.length()));
+        } else if (arg.startsWith(READ_SHARE_ARGUMENT)) {
+            readShare = parseShare(arg.substring(READ_SHARE_ARGUMENT.length()));
+        } else if (arg.startsWith(SKEW_ARGUMENT)) {
+            skew = Double.parseDouble(arg.substring(SKEW_ARGUMENT.length()));
+            if (!(skew >= 0)) {
+                throw new NumberFormatException(arg);
+            }
+        } else if (arg.startsWith(SEED_ARGUMENT)) {
+            seed = Long.parseLong(arg.substring(SEED_ARGUMENT.length()));
+        } else if (arg.startsWith(OUTPUT_ARGUMENT)) {
+            outputFileName = arg.substring(OUTPUT_ARGUMENT.length());
+        } else {
+            throw new IllegalArgumentException(arg);
+        }
+    }
+
+    /**
+     * Generates the script.
+     *
+     * @return the lines of the script
+     */
+    private List<String> generate() {
+        Random random = new Random(seed);
+        GeneratedGraph graph = shape.generate(size, random);
+        List<String> lines = new ArrayList<>();
+        for (int index : graph.getShuffledIndices(random)) {
+            lines.add("addAssembly " + graph.toAssemblyParameters(index));
+        }
+
+        // the hot assemblies are chosen independently of their position in the product structure
+        List<String> boms = new ArrayList<>();
+        for (int index = 0; index < graph.size(); index++) {
+            boms.add(graph.getName(index));
+        }
+        List<String> components = graph.getComponentNames();
+        Collections.shuffle(boms, random);
+        Collections.shuffle(components, random);
+        ZipfDistribution bomRanks = new ZipfDistribution(boms.size(), skew);
+        ZipfDistribution componentRanks = new ZipfDistribution(components.size(), skew);
+
+        // the parts added by the workload, so they can be removed again
+        List<String> addedParts = new ArrayList<>();
+        for (int i = 0; i < lineCount; i++) {
+            String bom = boms.get(bomRanks.next(random));
+            if (random.nextDouble() < readShare) {
+                double query = random.nextDouble();
+                if (query < QUERY_SHARES[0]) {
+                    lines.add("getComponents " + bom);
+                } else if (query < QUERY_SHARES[1]) {
+                    lines.add("getAssemblies " + bom);
+                } else if (query < QUERY_SHARES[2]) {
+                    lines.add("printAssembly " + bom);
+                } else {
+                    lines.add("getUsages " + components.get(componentRanks.next(random)));
+                }
+            } else if (addedParts.isEmpty() || random.nextBoolean()) {
+                String part = (1 + random.nextInt(AMOUNT_MAX)) + ":" + components.get(componentRanks.next(random));
+                lines.add("addPart " + bom + "+" + part);
+                addedParts.add(bom + "-" + part);
+            } else {
+                int index = random.nextInt(addedParts.size());
+                lines.add("removePart " + addedParts.get(index));
+                addedParts.set(index, addedParts.get(addedParts.size() - 1));
+                addedParts.remove(addedParts.size() - 1);
+            }
+        }
+        lines.add(QUIT_LINE);
+        return lines;
+    }
+
+    /**
+     * Parses a positive int.
+     *
+     * @param value the string representation of the int
+     * @return the int
+     * @throws NumberFormatException when the string is no positive int
+     */
+    private static int parsePositive(String value) {
+        int result = Integer.parseInt(value);
+        if (result <= 0) {
+            throw new NumberFormatException(value);
+        }
+        return result;
+    }
+
+    /**
+     * Parses a share between 0 and 1.
+     *
+     * @param value the string representation of the share
+     * @return the share
+     * @throws NumberFormatException when the string is no share
+     */
+    private static double parseShare(String value) {
+        double result = Double.parseDouble(value);
+        if (!(result >= 0 && result <= 1)) {
+            throw new NumberFormatException(value);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,219 @@
+package edu.kit.informatik.bench;
+
+import edu.kit.informatik.Terminal;
+import edu.kit.informatik.ui.CommandLineInterface;
+import edu.kit.informatik.ui.LineSource;
+import edu.kit.informatik.ui.OutputSink;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Replays a command script against an in-process CommandLineInterface and reports the throughput
+ * and the latency percentiles of every instruction.
+ *
+ * The script is read into memory first and the output is discarded, so only the commands themselves are measured.
+ * The latency of a line spans from handing it to the CommandLineInterface until it asks for the next line,
+ * which covers parsing, execution and printing.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+public final class WorkloadReplay {
+    private static final String INVALID_ARGUMENTS_MESSAGE = "expected the script file as only argument";
+    private static final String SUMMARY_FORMAT = "%d lines in %.1f ms, %.0f lines/s";
+    private static final String HEADER_FORMAT = "%-16s %9s %8s %10s %10s %10s %10s %10s";
+    private static final String ROW_FORMAT = "%-16s %9d %8d %10.1f %10.1f %10.1f %10.1f %10.1f";
+    private static final char INSTRUCTION_SEPARATOR = ' ';
+    private static final double NANOS_PER_MICRO = 1000;
+    private static final double NANOS_PER_MILLI = 1000000;
+    private static final double NANOS_PER_SECOND = 1000000000;
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.99};
+
+    /**
+     * Utility class.
+     */
+    private WorkloadReplay() {
+    }
+
+    /**
+     * The entry point of the replay.
+     *
+     * @param args the name of the script file
+     */
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            Terminal.printError(INVALID_ARGUMENTS_MESSAGE);
+            Terminal.flush();
+            return;
+        }
+
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(Paths.get(args[0]), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            Terminal.printError(e.toString());
+            Terminal.flush();
+            return;
+        }
+
+        Map<String, InstructionStats> stats = new TreeMap<>();
+        TimedSource source = new TimedSource(lines, stats);
+        long start = System.nanoTime();
+        new CommandLineInterface(source).start(source);
+        source.finishLine();
+        long totalNanos = System.nanoTime() - start;
+
+        Terminal.printLine(String.format(Locale.ROOT, SUMMARY_FORMAT, source.readCount,
+                totalNanos / NANOS_PER_MILLI, source.readCount * NANOS_PER_SECOND / totalNanos));
+        Terminal.printLine(String.format(Locale.ROOT, HEADER_FORMAT,
+                "instruction", "count", "errors", "mean us", "p50 us", "p90 us", "p99 us", "max us"));
+        for (Map.Entry<String, InstructionStats> entry : stats.entrySet()) {
+            InstructionStats instruction = entry.getValue();
+            long[] latencies = instruction.getSortedLatencies();
+            Terminal.printLine(String.format(Locale.ROOT, ROW_FORMAT, entry.getKey(), latencies.length,
+                    instruction.errorCount, instruction.getMean() / NANOS_PER_MICRO,
+                    percentile(latencies, PERCENTILES[0]) / NANOS_PER_MICRO,
+                    percentile(latencies, PERCENTILES[1]) / NANOS_PER_MICRO,
+                    percentile(latencies, PERCENTILES[2]) / NANOS_PER_MICRO,
+                    latencies[latencies.length - 1] / NANOS_PER_MICRO));
+        }
+        Terminal.flush();
+    }
+
+    /**
+     * Gets a percentile of sorted latencies by the nearest rank.
+     *
+     * @param sortedLatencies the sorted latencies, not empty
+     * @param percentile the percentile between 0 and 1
+     * @return the latency in nanoseconds
+     */
+    private static double percentile(long[] sortedLatencies, double percentile) {
+        int rank = (int) Math.ceil(percentile * sortedLatencies.length);
+        return sortedLatencies[Math.max(rank, 1) - 1];
+    }
+
+    /**
+     * The latencies and errors recorded for an instruction.
+     */
+    private static final class InstructionStats {
+        private static final int INITIAL_CAPACITY = 1024;
+
+        private long[] latencies;
+        private int count;
+        private long errorCount;
+
+        /**
+         * Instantiates a new InstructionStats.
+         */
+        private InstructionStats() {
+            this.latencies = new long[INITIAL_CAPACITY];
+        }
+
+        /**
+         * Records the latency of a line.
+         *
+         * @param nanos the latency in nanoseconds
+         */
+        private void record(long nanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+        }
+
+        /**
+         * Gets the mean latency.
+         *
+         * @return the mean latency in nanoseconds
+         */
+        private double getMean() {
+            double sum = 0;
+            for (int i = 0; i < count; i++) {
+                sum += latencies[i];
+            }
+            return sum / count;
+        }
+
+        /**
+         * Gets the recorded latencies in ascending order.
+         *
+         * @return the sorted latencies in nanoseconds
+         */
+        private long[] getSortedLatencies() {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+
+    /**
+     * Hands the lines of the script to the CommandLineInterface, measuring the time until the next line is requested,
+     * and counts the errors printed in between. All other output is discarded.
+     */
+    private static final class TimedSource implements LineSource, OutputSink {
+        private final List<String> lines;
+        private final Map<String, InstructionStats> stats;
+        private int readCount;
+        /**
+         * The stats of the line currently executed, null if none is.
+         */
+        private InstructionStats current;
+        private long lineStart;
+
+        /**
+         * Instantiates a new TimedSource.
+         *
+         * @param lines the lines of the script
+         * @param stats the stats of every instruction, filled while the lines are executed
+         */
+        private TimedSource(List<String> lines, Map<String, InstructionStats> stats) {
+            this.lines = lines;
+            this.stats = stats;
+        }
+
+        @Override
+        public String readLine() {
+            finishLine();
+            if (readCount == lines.size()) {
+                return null;
+            }
+
+            String line = lines.get(readCount++);
+            int separatorIndex = line.indexOf(INSTRUCTION_SEPARATOR);
+            String instruction = separatorIndex >= 0 ? line.substring(0, separatorIndex) : line;
+            current = stats.computeIfAbsent(instruction, name -> new InstructionStats());
+            lineStart = System.nanoTime();
+            return line;
+        }
+
+        /**
+         * Records the latency of the line currently executed.
+         */
+        private void finishLine() {
+            if (current != null) {
+                current.record(System.nanoTime() - lineStart);
+                current = null;
+            }
+        }
+
+        @Override
+        public void printLine(String line) {
+            // the results are not checked, only their computation is measured
+        }
+
+        @Override
+        public void printError(String errorMessage) {
+            if (current != null) {
+                current.errorCount++;
+            }
+        }
+    }
+}
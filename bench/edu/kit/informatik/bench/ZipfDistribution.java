@@ -0,0 +1,48 @@
+package edu.kit.informatik.bench;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Chooses ranks following a Zipf distribution, so that rank k is chosen with a probability proportional to 1/k^s.
+ * An exponent of 0 chooses all ranks uniformly, the higher the exponent the more the first ranks dominate.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+final class ZipfDistribution {
+    /**
+     * The cumulative probability of every rank, the last one being 1.
+     */
+    private final double[] cumulative;
+
+    /**
+     * Instantiates a new ZipfDistribution.
+     *
+     * @param count the amount of ranks
+     * @param exponent the exponent s of the distribution
+     */
+    ZipfDistribution(int count, double exponent) {
+        cumulative = new double[count];
+        double sum = 0;
+        for (int k = 0; k < count; k++) {
+            sum += 1 / Math.pow(k + 1, exponent);
+            cumulative[k] = sum;
+        }
+        for (int k = 0; k < count; k++) {
+            cumulative[k] /= sum;
+        }
+    }
+
+    /**
+     * Chooses a rank.
+     *
+     * @param random the source of randomness
+     * @return the rank, 0 being the most frequent one
+     */
+    int next(Random random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        int rank = index >= 0 ? index : -index - 1;
+        return Math.min(rank, cumulative.length - 1);
+    }
+}
@@ -0,0 +1,140 @@
+package edu.kit.informatik.ui;
+
+import edu.kit.informatik.bench.Benchmark;
+import edu.kit.informatik.bench.GeneratedGraph;
+import edu.kit.informatik.ui.exceptions.InputException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The benchmarks of the command line interface, running a script generated from the product structure:
+ * an addAssembly line per BOM followed by the queries of every end product and BOM.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+public final class CommandLineBenchmarks {
+    private static final long ORDER_SEED = 17;
+
+    /**
+     * Utility class.
+     */
+    private CommandLineBenchmarks() {
+    }
+
+    /**
+     * Creates all benchmarks of the command line interface.
+     *
+     * @return the benchmarks
+     */
+    public static List<Benchmark> create() {
+        return Arrays.asList(new Parse(), new Lines());
+    }
+
+    /**
+     * Generates the script of a product structure.
+     *
+     * @param graph the product structure
+     * @return the lines of the script
+     */
+    private static List<String> generateScript(GeneratedGraph graph) {
+        List<String> lines = new ArrayList<>();
+        for (int index : graph.getShuffledIndices(new Random(ORDER_SEED))) {
+            lines.add("addAssembly " + graph.toAssemblyParameters(index));
+        }
+        for (String root : graph.getRoots()) {
+            lines.add("getComponents " + root);
+            lines.add("getAssemblies " + root);
+        }
+        for (int index = 0; index < graph.size(); index++) {
+            lines.add("printAssembly " + graph.getName(index));
+        }
+        return lines;
+    }
+
+    /**
+     * Parses every line of the script without executing it.
+     */
+    private static final class Parse extends Benchmark {
+        private List<String> lines;
+        /**
+         * The last parsed command, kept so the parsing cannot be optimized away.
+         */
+        private ParsedCommand lastCommand;
+
+        /**
+         * Instantiates a new Parse.
+         */
+        private Parse() {
+            super("parseLines");
+        }
+
+        @Override
+        public void setUp(GeneratedGraph graph) {
+            lines = generateScript(graph);
+        }
+
+        @Override
+        public long run() throws InputException {
+            for (String line : lines) {
+                lastCommand = Command.fromString(line);
+            }
+            return lastCommand == null ? 0 : lines.size();
+        }
+    }
+
+    /**
+     * Executes every line of the script on an empty workbench, from parsing to printing.
+     */
+    private static final class Lines extends Benchmark {
+        private final CountingOutput output;
+        private List<String> lines;
+        private CommandLineInterface cli;
+
+        /**
+         * Instantiates a new Lines.
+         */
+        private Lines() {
+            super("commandLines");
+            this.output = new CountingOutput();
+        }
+
+        @Override
+        public void setUp(GeneratedGraph graph) {
+            lines = generateScript(graph);
+        }
+
+        @Override
+        public void prepare() {
+            cli = new CommandLineInterface().openSession(output);
+        }
+
+        @Override
+        public long run() {
+            for (String line : lines) {
+                cli.execute(line);
+            }
+            return output.length;
+        }
+    }
+
+    /**
+     * Discards the output, only counting its length.
+     */
+    private static final class CountingOutput implements OutputSink {
+        private long length;
+
+        @Override
+        public void printLine(String line) {
+            length += line.length();
+        }
+
+        @Override
+        public void printError(String errorMessage) {
+            length += errorMessage.length();
+        }
+    }
+}
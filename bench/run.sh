@@ -0,0 +1,22 @@
+#!/bin/sh
+# Compiles the sources and the benchmarks and runs a benchmark program with the given arguments.
+#
+# Usage: bench/run.sh [BenchmarkRunner|WorkloadGenerator|WorkloadReplay] [arguments...]
+# Without a program name the BenchmarkRunner is run, e.g. bench/run.sh --shapes=CHAIN --sizes=1000
+set -e
+
+root=$(cd "$(dirname "$0")/.." && pwd)
+classes="$root/build/bench-classes"
+
+program=BenchmarkRunner
+case "$1" in
+    ""|--*) ;;
+    *) program=$1; shift ;;
+esac
+
+rm -rf "$classes"
+mkdir -p "$classes"
+find "$root/src" "$root/bench" -name '*.java' > "$classes/sources.txt"
+javac -encoding UTF-8 -d "$classes" "@$classes/sources.txt"
+
+exec java -cp "$classes" "edu.kit.informatik.bench.$program" "$@"
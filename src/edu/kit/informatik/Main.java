@@ -9,14 +9,108 @@ import edu.kit.informatik.ui.CommandLineInterface;
  * @version 1.0
  */
 public class Main {
+    private static final String BATCH_MODE_ARGUMENT = "--batch";
+    private static final String PIPELINE_ARGUMENT = "--pipeline";
+    private static final String SERVER_ARGUMENT = "--server=";
+    private static final String HTTP_ARGUMENT = "--http=";
+    private static final String SNAPSHOT_ARGUMENT = "--snapshot=";
+    private static final String JOURNAL_ARGUMENT = "--journal=";
+    private static final String JOURNAL_SYNC_COUNT_ARGUMENT = "--journal-sync-count=";
+    private static final String JOURNAL_SYNC_MILLIS_ARGUMENT = "--journal-sync-millis=";
+    private static final String STATS_FILE_ARGUMENT = "--stats-file=";
+    private static final String STATS_INTERVAL_ARGUMENT = "--stats-interval=";
+    private static final String INVALID_ARGUMENT_MESSAGE = "invalid argument: %s";
+    private static final int DEFAULT_JOURNAL_SYNC_COUNT = 1;
+    private static final long DEFAULT_JOURNAL_SYNC_MILLIS = 0;
+    private static final long DEFAULT_STATS_INTERVAL_SECONDS = 60;
+
     /**
      * The entry point of application.
      *
+     * Passing --batch enables buffered input and output for piped command scripts.
+     * Passing --pipeline reads, parses, executes and prints the commands on separate threads.
+     * Passing --server=port serves clients connecting to the local port instead of reading the terminal.
+     * Passing --http=port additionally answers queries and mutations as JSON over HTTP on the local port.
+     * Passing --snapshot=file restores the product structure from a snapshot if the file exists,
+     * --journal=file replays a journal on top of it and appends all further mutations to the journal.
+     * The journal forces its records to disk once --journal-sync-count=n records are pending
+     * or --journal-sync-millis=ms milliseconds have passed, by default every record is forced to disk.
+     * Passing --stats-file=file writes the stats of all instructions to the file
+     * every --stats-interval=s seconds, by default every minute.
+     *
      * @param args the commandLine arguments passed to the application
      */
     public static void main(String[] args) {
+        String snapshotFileName = null;
+        String journalFileName = null;
+        int journalSyncCount = DEFAULT_JOURNAL_SYNC_COUNT;
+        long journalSyncMillis = DEFAULT_JOURNAL_SYNC_MILLIS;
+        boolean pipelined = false;
+        int serverPort = -1;
+        int httpPort = -1;
+        String statsFileName = null;
+        long statsIntervalSeconds = DEFAULT_STATS_INTERVAL_SECONDS;
+
+        for (String arg : args) {
+            try {
+                if (arg.equals(BATCH_MODE_ARGUMENT)) {
+                    Terminal.enableBatchMode();
+                } else if (arg.equals(PIPELINE_ARGUMENT)) {
+                    pipelined = true;
+                } else if (arg.startsWith(SERVER_ARGUMENT)) {
+                    serverPort = parseNonNegative(arg.substring(SERVER_ARGUMENT.length()));
+                } else if (arg.startsWith(HTTP_ARGUMENT)) {
+                    httpPort = parseNonNegative(arg.substring(HTTP_ARGUMENT.length()));
+                } else if (arg.startsWith(SNAPSHOT_ARGUMENT)) {
+                    snapshotFileName = arg.substring(SNAPSHOT_ARGUMENT.length());
+                } else if (arg.startsWith(JOURNAL_ARGUMENT)) {
+                    journalFileName = arg.substring(JOURNAL_ARGUMENT.length());
+                } else if (arg.startsWith(JOURNAL_SYNC_COUNT_ARGUMENT)) {
+                    journalSyncCount = parseNonNegative(arg.substring(JOURNAL_SYNC_COUNT_ARGUMENT.length()));
+                } else if (arg.startsWith(JOURNAL_SYNC_MILLIS_ARGUMENT)) {
+                    journalSyncMillis = parseNonNegative(arg.substring(JOURNAL_SYNC_MILLIS_ARGUMENT.length()));
+                } else if (arg.startsWith(STATS_FILE_ARGUMENT)) {
+                    statsFileName = arg.substring(STATS_FILE_ARGUMENT.length());
+                } else if (arg.startsWith(STATS_INTERVAL_ARGUMENT)) {
+                    statsIntervalSeconds = parseNonNegative(arg.substring(STATS_INTERVAL_ARGUMENT.length()));
+                    if (statsIntervalSeconds == 0) {
+                        throw new NumberFormatException(arg);
+                    }
+                }
+            } catch (NumberFormatException e) {
+                Terminal.printError(String.format(INVALID_ARGUMENT_MESSAGE, arg));
+                Terminal.flush();
+                return;
+            }
+        }
+
         CommandLineInterface cli = new CommandLineInterface();
-        cli.start();
+        if (cli.recover(snapshotFileName, journalFileName, journalSyncCount, journalSyncMillis)
+                && (httpPort < 0 || cli.startHttpEndpoint(httpPort))
+                && (statsFileName == null || cli.startStatsExport(statsFileName, statsIntervalSeconds))) {
+            if (serverPort >= 0) {
+                cli.startServer(serverPort);
+            } else if (pipelined) {
+                cli.startPipelined(Runtime.getRuntime().availableProcessors());
+            } else {
+                cli.start();
+            }
+        }
+        Terminal.flush();
     }
-}
 
+    /**
+     * Parses a non-negative int.
+     *
+     * @param value the string representation of the int
+     * @return the int
+     * @throws NumberFormatException when the string is no non-negative int
+     */
+    private static int parseNonNegative(String value) {
+        int result = Integer.parseInt(value);
+        if (result < 0) {
+            throw new NumberFormatException(value);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,239 @@
+package edu.kit.informatik.logic;
+
+import java.util.Arrays;
+
+/**
+ * A list of assembly IDs and their respective amount, stored in two parallel primitive arrays.
+ *
+ * Each ID occurs at most once. New entries are appended, removing an entry moves the last entry into its place.
+ * Small lists are searched linearly, larger ones additionally keep an open-addressing index from ID to position,
+ * so even the parents of a component used by thousands of BOMs are updated in constant time.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+final class AmountList {
+    private static final int INITIAL_CAPACITY = 4;
+    private static final int INDEX_THRESHOLD = 8;
+    private static final int NO_ENTRY = 0;
+
+    private int[] ids;
+    private int[] amounts;
+    private int size;
+    /**
+     * Maps the hash of an ID to its position plus one using linear probing, null while the list is small.
+     */
+    private int[] index;
+
+    /**
+     * Instantiates a new empty AmountList.
+     */
+    AmountList() {
+        ids = new int[INITIAL_CAPACITY];
+        amounts = new int[INITIAL_CAPACITY];
+        size = 0;
+        index = null;
+    }
+
+    /**
+     * Instantiates a copy of an AmountList.
+     *
+     * @param list the list to copy
+     */
+    AmountList(AmountList list) {
+        ids = Arrays.copyOf(list.ids, list.ids.length);
+        amounts = Arrays.copyOf(list.amounts, list.amounts.length);
+        size = list.size;
+        index = list.index == null ? null : Arrays.copyOf(list.index, list.index.length);
+    }
+
+    /**
+     * Gets the amount of entries.
+     *
+     * @return the amount of entries
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Determines whether the list has no entries.
+     *
+     * @return whether it is empty
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Gets the ID of the entry at the given position.
+     *
+     * @param position the position of the entry
+     * @return the ID
+     */
+    int getId(int position) {
+        return ids[position];
+    }
+
+    /**
+     * Gets the amount of the entry at the given position.
+     *
+     * @param position the position of the entry
+     * @return the amount
+     */
+    int getAmount(int position) {
+        return amounts[position];
+    }
+
+    /**
+     * Gets the amount stored for an ID.
+     *
+     * @param id the ID
+     * @return the amount or 0 if the list does not contain the ID
+     */
+    int getAmountOf(int id) {
+        int position = positionOf(id);
+        return position < 0 ? 0 : amounts[position];
+    }
+
+    /**
+     * Sets the amount of an ID, appending a new entry if the list does not contain the ID yet.
+     *
+     * @param id the ID
+     * @param amount the amount
+     */
+    void put(int id, int amount) {
+        int position = positionOf(id);
+        if (position < 0) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                amounts = Arrays.copyOf(amounts, size * 2);
+            }
+            position = size;
+            ids[position] = id;
+            size++;
+
+            if (index != null && size * 2 <= index.length) {
+                index[findFreeSlot(id)] = position + 1;
+            } else if (size > INDEX_THRESHOLD) {
+                rebuildIndex();
+            }
+        }
+        amounts[position] = amount;
+    }
+
+    /**
+     * Removes the entry of an ID if the list contains it.
+     *
+     * @param id the ID
+     */
+    void remove(int id) {
+        int position = positionOf(id);
+        if (position < 0) {
+            return;
+        }
+
+        int last = size - 1;
+        if (index != null) {
+            clearSlot(findSlot(id));
+            if (position != last) {
+                index[findSlot(ids[last])] = position + 1;
+            }
+        }
+        ids[position] = ids[last];
+        amounts[position] = amounts[last];
+        size--;
+    }
+
+    /**
+     * Gets the position of the entry of an ID.
+     *
+     * @param id the ID
+     * @return the position or -1 if the list does not contain the ID
+     */
+    private int positionOf(int id) {
+        if (index != null) {
+            int slot = findSlot(id);
+            return slot < 0 ? -1 : index[slot] - 1;
+        }
+        for (int i = 0; i < size; i++) {
+            if (ids[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the index slot referring to the entry of an ID.
+     *
+     * @param id the ID
+     * @return the slot or -1 if the list does not contain the ID
+     */
+    private int findSlot(int id) {
+        int mask = index.length - 1;
+        for (int slot = hash(id) & mask; index[slot] != NO_ENTRY; slot = (slot + 1) & mask) {
+            if (ids[index[slot] - 1] == id) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the first free index slot in the probe sequence of an ID.
+     *
+     * @param id the ID
+     * @return the free slot
+     */
+    private int findFreeSlot(int id) {
+        int mask = index.length - 1;
+        int slot = hash(id) & mask;
+        while (index[slot] != NO_ENTRY) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Empties an index slot and moves later entries of the probe sequence back,
+     * so no lookup stops early at the new gap.
+     *
+     * @param slot the slot to empty
+     */
+    private void clearSlot(int slot) {
+        int mask = index.length - 1;
+        int gap = slot;
+
+        for (int next = (gap + 1) & mask; index[next] != NO_ENTRY; next = (next + 1) & mask) {
+            int home = hash(ids[index[next] - 1]) & mask;
+            // the entry may fill the gap unless its home slot lies cyclically between the gap and itself
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                index[gap] = index[next];
+                gap = next;
+            }
+        }
+        index[gap] = NO_ENTRY;
+    }
+
+    /**
+     * Rebuilds the index with a capacity of at least four times the amount of entries.
+     */
+    private void rebuildIndex() {
+        index = new int[Integer.highestOneBit(size * 4) * 2];
+        for (int position = 0; position < size; position++) {
+            index[findFreeSlot(ids[position])] = position + 1;
+        }
+    }
+
+    /**
+     * Spreads the bits of an ID, as consecutive IDs would otherwise form long probe sequences.
+     *
+     * @param id the ID
+     * @return the hash
+     */
+    private static int hash(int id) {
+        int hash = id * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -8,23 +8,29 @@ import java.util.*;
 /**
  * An assembly is an object which consists of different parts and their respective amount.
  *
+ * The parts are stored by the IDs the workbench assigned to their names,
+ * names are only resolved when the parts are requested from outside the workbench.
+ *
  * @author Linus Schilpp
  * @version 1.0
  */
 public class Assembly {
     private static final long PART_AMOUNT_MAX = 1000;
 
-    private String name;
-    private HashMap<String, Long> partEntries;
+    private final String name;
+    private final int id;
+    private final SymbolTable symbols;
+    private final AmountList parts;
 
     /**
      * Instantiates a new Assembly.
      *
+     * @param symbols     the symbol table of the workbench the assembly belongs to
      * @param name        the name of the assembly
      * @param partEntries the part entries of the assembly
      * @throws InvalidPartAmountException when the amount of a part is invalid
      */
-    public Assembly(String name, HashMap<String, Long> partEntries) throws InvalidPartAmountException {
+    Assembly(SymbolTable symbols, String name, Map<String, Long> partEntries) throws InvalidPartAmountException {
         for (Map.Entry<String, Long> part : partEntries.entrySet()) {
             long amount = part.getValue();
 
@@ -34,7 +40,39 @@ public class Assembly {
         }
 
         this.name  = name;
-        this.partEntries = partEntries;
+        this.id = symbols.intern(name);
+        this.symbols = symbols;
+        this.parts = new AmountList();
+
+        for (Map.Entry<String, Long> part : partEntries.entrySet()) {
+            parts.put(symbols.intern(part.getKey()), part.getValue().intValue());
+        }
+    }
+
+    /**
+     * Instantiates an assembly from already validated parts.
+     *
+     * @param symbols the symbol table of the workbench the assembly belongs to
+     * @param id      the ID of the assembly
+     * @param parts   the IDs of the parts and their respective amount
+     */
+    Assembly(SymbolTable symbols, int id, AmountList parts) {
+        this.name = symbols.getName(id);
+        this.id = id;
+        this.symbols = symbols;
+        this.parts = parts;
+    }
+
+    /**
+     * Instantiates a copy of an assembly whose parts can be altered independently.
+     *
+     * @param assembly the assembly to copy
+     */
+    Assembly(Assembly assembly) {
+        this.name = assembly.name;
+        this.id = assembly.id;
+        this.symbols = assembly.symbols;
+        this.parts = new AmountList(assembly.parts);
     }
 
     /**
@@ -49,61 +87,87 @@ public class Assembly {
     /**
      * Gets the name of all parts and their respective amount as key value pairs.
      *
-     * @return a set of part entries
+     * @return a list of part entries
+     */
+    public List<Map.Entry<String, Long>> getPartEntries() {
+        List<Map.Entry<String, Long>> partEntries = new ArrayList<>(parts.size());
+        for (int i = 0; i < parts.size(); i++) {
+            partEntries.add(new AbstractMap.SimpleImmutableEntry<>(symbols.getName(parts.getId(i)),
+                                                                   (long) parts.getAmount(i)));
+        }
+        return partEntries;
+    }
+
+    /**
+     * Gets the ID of the assembly.
+     *
+     * @return the ID of the assembly
+     */
+    int getId() {
+        return id;
+    }
+
+    /**
+     * Gets the IDs of all parts and their respective amount.
+     * The returned list must not be altered.
+     *
+     * @return the parts of the assembly
      */
-    public Set<Map.Entry<String, Long>> getPartEntries() {
-        return partEntries.entrySet();
+    AmountList getParts() {
+        return parts;
     }
 
     /**
-     * Gets the names of all parts.
+     * Gets the amount of a part.
      *
-     * @return a list of part names
+     * @param partId the ID of the part
+     * @return the amount of the part or 0 if the assembly does not contain it
      */
-    Set<String> getPartNames() {
-        return partEntries.keySet();
+    long getPartAmount(int partId) {
+        return parts.getAmountOf(partId);
     }
 
     /**
      * Adds the given amount of a part to the assembly.
      *
-     * @param partName the name of the part
-     * @param amount   the amount of the part to add
+     * @param partId the ID of the part
+     * @param amount the amount of the part to add
      * @throws InvalidPartAmountException when the amount of the part is invalid
      */
-    void addPartAmount(String partName, Long amount) throws InvalidPartAmountException {
+    void addPartAmount(int partId, long amount) throws InvalidPartAmountException {
 
-        long newAmount = amount + partEntries.getOrDefault(partName, (long) 0);
+        long newAmount = amount + parts.getAmountOf(partId);
 
         if (newAmount > PART_AMOUNT_MAX) {
-            throw new InvalidPartAmountException(name, partName, newAmount);
+            throw new InvalidPartAmountException(name, symbols.getName(partId), newAmount);
         }
-        partEntries.put(partName, newAmount);
+        parts.put(partId, (int) newAmount);
     }
 
     /**
      * Removes the given amount of a part from the assembly.
      *
-     * @param partName       the name of the part
+     * @param partId         the ID of the part
      * @param amountToRemove the amount of the part to remove
      * @throws PartNotExistingException       when assembly does not have the specified part
      * @throws PartAmountNotExistingException when the assembly does not have the specified part for the given amount
      */
-    void removePartAmount(String partName, Long amountToRemove)
+    void removePartAmount(int partId, long amountToRemove)
             throws PartNotExistingException, PartAmountNotExistingException {
 
-        if (!partEntries.containsKey(partName)) {
-            throw new PartNotExistingException(name, partName);
+        long amount = parts.getAmountOf(partId);
+        if (amount == 0) {
+            throw new PartNotExistingException(name, symbols.getName(partId));
         }
 
-        long newAmount = partEntries.get(partName) - amountToRemove;
+        long newAmount = amount - amountToRemove;
 
         if (newAmount < 0) {
-            throw new PartAmountNotExistingException(partName, amountToRemove);
+            throw new PartAmountNotExistingException(symbols.getName(partId), amountToRemove);
         } else if (newAmount == 0) {
-            partEntries.remove(partName);
+            parts.remove(partId);
         } else {
-            partEntries.replace(partName, newAmount);
+            parts.put(partId, (int) newAmount);
         }
     }
 }
@@ -0,0 +1,135 @@
+package edu.kit.informatik.logic;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads the values written by a BinaryOutput from a byte buffer.
+ *
+ * Reading beyond the end of the buffer throws a BufferUnderflowException,
+ * a number that is malformed or out of range a NumberFormatException.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+final class BinaryInput {
+    private static final int VARINT_PAYLOAD_BITS = 7;
+    private static final int VARINT_PAYLOAD_MASK = 0x7F;
+    private static final int VARINT_CONTINUATION_BIT = 0x80;
+    private static final int MAX_VARLONG_SIZE = 10;
+
+    private final ByteBuffer buffer;
+
+    /**
+     * Instantiates a new BinaryInput.
+     *
+     * @param buffer the buffer to read from, starting at its position
+     */
+    BinaryInput(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Gets the position of the next byte to read.
+     *
+     * @return the position
+     */
+    int position() {
+        return buffer.position();
+    }
+
+    /**
+     * Gets the amount of bytes left to read.
+     *
+     * @return the amount of bytes
+     */
+    int remaining() {
+        return buffer.remaining();
+    }
+
+    /**
+     * Reads a single byte.
+     *
+     * @return the byte
+     */
+    byte readByte() {
+        return buffer.get();
+    }
+
+    /**
+     * Reads an int with a fixed size of four bytes in big-endian order.
+     *
+     * @return the int
+     */
+    int readInt() {
+        return buffer.getInt();
+    }
+
+    /**
+     * Reads an unsigned variable-length integer that has to fit into an int.
+     *
+     * @return the number
+     */
+    int readVarint() {
+        long value = readVarlong();
+        if (value > Integer.MAX_VALUE) {
+            throw new NumberFormatException();
+        }
+        return (int) value;
+    }
+
+    /**
+     * Reads an unsigned variable-length integer that has to fit into a non-negative long.
+     *
+     * @return the number
+     */
+    long readVarlong() {
+        long value = 0;
+        for (int i = 0; i < MAX_VARLONG_SIZE; i++) {
+            int b = buffer.get();
+            value |= (long) (b & VARINT_PAYLOAD_MASK) << (i * VARINT_PAYLOAD_BITS);
+            if ((b & VARINT_CONTINUATION_BIT) == 0) {
+                if (value < 0) {
+                    throw new NumberFormatException();
+                }
+                return value;
+            }
+        }
+        throw new NumberFormatException();
+    }
+
+    /**
+     * Reads a non-empty name.
+     * The length is checked against the remaining bytes first, so a corrupt length never allocates a huge array.
+     *
+     * @return the name
+     */
+    String readName() {
+        int length = readVarint();
+        if (length == 0) {
+            throw new NumberFormatException();
+        } else if (length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        byte[] name = new byte[length];
+        buffer.get(name);
+        return new String(name, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Reads the next bytes as separate buffer.
+     *
+     * @param length the amount of bytes
+     * @return a buffer sharing the bytes
+     */
+    ByteBuffer readSlice(int length) {
+        if (length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        ByteBuffer slice = buffer.slice();
+        slice.limit(length);
+        buffer.position(buffer.position() + length);
+        return slice;
+    }
+}
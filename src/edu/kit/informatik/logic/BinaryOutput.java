@@ -0,0 +1,144 @@
+package edu.kit.informatik.logic;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A growable byte buffer for the binary files of a workbench.
+ *
+ * Numbers are written as unsigned variable-length integers (LEB128) unless stated otherwise,
+ * names as their length followed by one byte per character.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+final class BinaryOutput {
+    private static final int INITIAL_CAPACITY = 1 << 12;
+    private static final int VARINT_PAYLOAD_BITS = 7;
+    private static final int VARINT_PAYLOAD_MASK = 0x7F;
+    private static final int VARINT_CONTINUATION_BIT = 0x80;
+    private static final int MAX_VARLONG_SIZE = 10;
+
+    private byte[] bytes;
+    private int size;
+
+    /**
+     * Instantiates a new empty BinaryOutput.
+     */
+    BinaryOutput() {
+        bytes = new byte[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    /**
+     * Gets the amount of written bytes.
+     *
+     * @return the amount of bytes
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Gets the array holding the written bytes at its start.
+     *
+     * @return the array
+     */
+    byte[] getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Discards all written bytes.
+     */
+    void reset() {
+        size = 0;
+    }
+
+    /**
+     * Writes a single byte.
+     *
+     * @param value the byte
+     */
+    void writeByte(int value) {
+        ensureCapacity(1);
+        bytes[size++] = (byte) value;
+    }
+
+    /**
+     * Writes an int with a fixed size of four bytes in big-endian order.
+     *
+     * @param value the int
+     */
+    void writeInt(int value) {
+        ensureCapacity(Integer.BYTES);
+        for (int shift = Integer.SIZE - Byte.SIZE; shift >= 0; shift -= Byte.SIZE) {
+            bytes[size++] = (byte) (value >>> shift);
+        }
+    }
+
+    /**
+     * Writes a non-negative number as unsigned variable-length integer.
+     *
+     * @param value the number
+     */
+    void writeVarint(long value) {
+        ensureCapacity(MAX_VARLONG_SIZE);
+        while ((value & ~VARINT_PAYLOAD_MASK) != 0) {
+            bytes[size++] = (byte) ((value & VARINT_PAYLOAD_MASK) | VARINT_CONTINUATION_BIT);
+            value >>>= VARINT_PAYLOAD_BITS;
+        }
+        bytes[size++] = (byte) value;
+    }
+
+    /**
+     * Writes a name, which only consists of ASCII characters.
+     *
+     * @param name the name
+     */
+    void writeName(String name) {
+        writeVarint(name.length());
+        writeBytes(name.getBytes(StandardCharsets.ISO_8859_1), 0, name.length());
+    }
+
+    /**
+     * Writes a range of a byte array.
+     *
+     * @param source the byte array
+     * @param offset the start of the range
+     * @param length the length of the range
+     */
+    void writeBytes(byte[] source, int offset, int length) {
+        ensureCapacity(length);
+        System.arraycopy(source, offset, bytes, size, length);
+        size += length;
+    }
+
+    /**
+     * Writes all written bytes to a channel and discards them.
+     *
+     * @param channel the channel
+     * @throws IOException when the channel cannot be written
+     */
+    void transferTo(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, size);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        reset();
+    }
+
+    /**
+     * Grows the array if fewer than the given amount of bytes fit into it.
+     *
+     * @param byteCount the amount of bytes that are going to be written
+     */
+    private void ensureCapacity(int byteCount) {
+        if (bytes.length - size < byteCount) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + byteCount));
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package edu.kit.informatik.logic;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes a point-in-time view of a workbench to a snapshot in the background and afterwards
+ * removes all journal records contained in the snapshot.
+ *
+ * The view consists of copies of the name and BOM arrays, the BOMs themselves are shared with the workbench.
+ * While the checkpoint is running the workbench copies a shared BOM before altering it (copy-on-write),
+ * so the view stays consistent although new mutations are applied concurrently.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+final class Checkpoint implements Runnable {
+    private final Path file;
+    private final String[] names;
+    private final Assembly[] boms;
+    private final long version;
+    private final int bomCount;
+    private final Journal journal;
+    private final long journalOffset;
+    private final AtomicInteger writtenBOMCount;
+    private final long startTime;
+    private volatile long endTime;
+    private volatile CheckpointState state;
+    private volatile String failedFileName;
+
+    /**
+     * Instantiates a new Checkpoint.
+     *
+     * @param file the snapshot file to write to
+     * @param names the names of all assemblies indexed by their ID
+     * @param boms the BOMs indexed by their ID, not altered by the workbench anymore
+     * @param version the version of the workbench the view has been taken at
+     * @param journal the journal to truncate, null if there is none
+     * @param journalOffset the position of the first journal record that is not contained in the view
+     */
+    Checkpoint(Path file, String[] names, Assembly[] boms, long version, Journal journal, long journalOffset) {
+        this.file = file;
+        this.names = names;
+        this.boms = boms;
+        this.version = version;
+        this.journal = journal;
+        this.journalOffset = journalOffset;
+        this.writtenBOMCount = new AtomicInteger();
+        this.startTime = System.nanoTime();
+        this.state = CheckpointState.RUNNING;
+        this.failedFileName = null;
+
+        int count = 0;
+        for (Assembly bom : boms) {
+            if (bom != null) {
+                count++;
+            }
+        }
+        this.bomCount = count;
+    }
+
+    @Override
+    public void run() {
+        try {
+            Snapshot.write(file, names, boms, version, writtenBOMCount);
+        } catch (IOException e) {
+            finish(CheckpointState.FAILED, file.toString());
+            return;
+        }
+
+        try {
+            if (journal != null) {
+                journal.truncateBefore(journalOffset);
+            }
+            finish(CheckpointState.FINISHED, null);
+        } catch (IOException e) {
+            finish(CheckpointState.FAILED, journal.getFileName());
+        }
+    }
+
+    /**
+     * Determines whether the checkpoint is still running.
+     *
+     * @return whether it is running
+     */
+    boolean isRunning() {
+        return state == CheckpointState.RUNNING;
+    }
+
+    /**
+     * Determines whether a BOM still has to be written by the checkpoint and therefore must not be altered.
+     *
+     * @param bom the BOM
+     * @return whether the BOM belongs to the view of a running checkpoint
+     */
+    boolean isShared(Assembly bom) {
+        return isRunning() && bom.getId() < boms.length && boms[bom.getId()] == bom;
+    }
+
+    /**
+     * Gets the current progress of the checkpoint.
+     *
+     * @return the status
+     */
+    CheckpointStatus getStatus() {
+        CheckpointState currentState = state;
+        long duration = (currentState == CheckpointState.RUNNING ? System.nanoTime() : endTime) - startTime;
+        return new CheckpointStatus(currentState, version, writtenBOMCount.get(), bomCount,
+                                    TimeUnit.NANOSECONDS.toMillis(duration), failedFileName);
+    }
+
+    /**
+     * Records the end of the checkpoint.
+     *
+     * @param finalState the state the checkpoint ended in
+     * @param failedFile the name of the file that could not be written, null if the checkpoint succeeded
+     */
+    private void finish(CheckpointState finalState, String failedFile) {
+        endTime = System.nanoTime();
+        failedFileName = failedFile;
+        state = finalState;
+    }
+}
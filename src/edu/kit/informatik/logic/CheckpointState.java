@@ -0,0 +1,26 @@
+package edu.kit.informatik.logic;
+
+/**
+ * The state of the last checkpoint of a workbench.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+public enum CheckpointState {
+    /**
+     * the state NONE means that no checkpoint has been started yet.
+     */
+    NONE,
+    /**
+     * the state RUNNING means that the snapshot is being written in the background.
+     */
+    RUNNING,
+    /**
+     * the state FINISHED means that the snapshot has been written and the journal has been truncated.
+     */
+    FINISHED,
+    /**
+     * the state FAILED means that the snapshot or the truncated journal could not be written.
+     */
+    FAILED
+}
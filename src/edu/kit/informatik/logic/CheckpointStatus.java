@@ -0,0 +1,90 @@
+package edu.kit.informatik.logic;
+
+/**
+ * The progress of the last checkpoint of a workbench at the time it was requested.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+public final class CheckpointStatus {
+    private final CheckpointState state;
+    private final long version;
+    private final int writtenBOMCount;
+    private final int bomCount;
+    private final long durationMillis;
+    private final String failedFileName;
+
+    /**
+     * Instantiates a new CheckpointStatus.
+     *
+     * @param state the state of the checkpoint
+     * @param version the version of the workbench the checkpoint has been taken at
+     * @param writtenBOMCount the amount of BOMs that have been written
+     * @param bomCount the amount of BOMs of the checkpoint
+     * @param durationMillis the time in milliseconds the checkpoint has been running or took
+     * @param failedFileName the name of the file that could not be written, null if the checkpoint did not fail
+     */
+    CheckpointStatus(CheckpointState state, long version, int writtenBOMCount, int bomCount, long durationMillis,
+                     String failedFileName) {
+        this.state = state;
+        this.version = version;
+        this.writtenBOMCount = writtenBOMCount;
+        this.bomCount = bomCount;
+        this.durationMillis = durationMillis;
+        this.failedFileName = failedFileName;
+    }
+
+    /**
+     * Gets the state of the checkpoint.
+     *
+     * @return the state
+     */
+    public CheckpointState getState() {
+        return state;
+    }
+
+    /**
+     * Gets the version of the workbench the checkpoint has been taken at.
+     *
+     * @return the version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the amount of BOMs that have been written.
+     *
+     * @return the amount of written BOMs
+     */
+    public int getWrittenBOMCount() {
+        return writtenBOMCount;
+    }
+
+    /**
+     * Gets the amount of BOMs of the checkpoint.
+     *
+     * @return the amount of BOMs
+     */
+    public int getBOMCount() {
+        return bomCount;
+    }
+
+    /**
+     * Gets the time the checkpoint has been running or took.
+     *
+     * @return the duration in milliseconds
+     */
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    /**
+     * Gets the name of the file that could not be written.
+     *
+     * @return the file name or null if the checkpoint did not fail
+     */
+    public String getFailedFileName() {
+        return failedFileName;
+    }
+}
@@ -0,0 +1,36 @@
+package edu.kit.informatik.logic;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A flight recorder event emitted for every check whether adding a BOM or a part creates a cycle.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+@Name("edu.kit.informatik.CycleCheck")
+@Label("Cycle Check")
+@Category({"BOM Workbench", "Mutations"})
+@Description("A check whether a new BOM or part creates a cycle, reordering the topological order if it does not")
+@StackTrace(false)
+final class CycleCheckEvent extends Event {
+    @Label("BOM")
+    String bom;
+
+    @Label("Assemblies Searched")
+    @Description("The amount of assemblies searched for a path back to the BOM")
+    int assembliesSearched;
+
+    @Label("Depth Explored")
+    @Description("The length of the longest path searched for a path back to the BOM")
+    int depthExplored;
+
+    @Label("Trace Length")
+    @Description("The length of the trace of the cycle, 0 if no cycle has been found")
+    int traceLength;
+}
@@ -0,0 +1,41 @@
+package edu.kit.informatik.logic;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A flight recorder event emitted for every explosion of a BOM into its part counts.
+ *
+ * Like all events of the workbench it is only committed while a recording has it enabled,
+ * otherwise emitting it costs no more than a check of a flag.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+@Name("edu.kit.informatik.Explosion")
+@Label("Explosion")
+@Category({"BOM Workbench", "Queries"})
+@Description("An explosion of a BOM into the total counts of its components or assemblies")
+@StackTrace(false)
+final class ExplosionEvent extends Event {
+    @Label("Root Assembly")
+    String rootAssembly;
+
+    @Label("Assembly Type")
+    String assemblyType;
+
+    @Label("Frozen")
+    @Description("Whether the explosion has been calculated on the frozen snapshot instead of the cache")
+    boolean frozen;
+
+    @Label("Nodes Visited")
+    @Description("The amount of assemblies whose counts have been looked up or calculated")
+    int nodesVisited;
+
+    @Label("Result Size")
+    int resultSize;
+}
@@ -0,0 +1,89 @@
+package edu.kit.informatik.logic;
+
+import java.util.BitSet;
+
+/**
+ * Counts the traversal of an explained explosion query.
+ *
+ * A probe is only attached to the part counter of a query that is explained,
+ * so regular queries pay no more than a null check per visited assembly.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+final class ExplosionProbe {
+    private final BitSet visited;
+    private int visitCount;
+    private int distinctCount;
+    private int depth;
+    private int maxDepth;
+    private int allocatedMapCount;
+    private int cacheHitCount;
+    private int cacheMissCount;
+
+    /**
+     * Instantiates a new ExplosionProbe without any counted visits.
+     */
+    ExplosionProbe() {
+        this.visited = new BitSet();
+    }
+
+    /**
+     * Counts the visit of an assembly in the cached explosion and descends one level.
+     *
+     * @param assemblyId the ID of the visited assembly
+     * @param cached whether the counts of the assembly have been found in the cache
+     */
+    void enter(int assemblyId, boolean cached) {
+        if (!visited.get(assemblyId)) {
+            visited.set(assemblyId);
+            distinctCount++;
+        }
+        visitCount++;
+        depth++;
+        maxDepth = Math.max(maxDepth, depth);
+        if (cached) {
+            cacheHitCount++;
+        } else {
+            cacheMissCount++;
+        }
+    }
+
+    /**
+     * Ascends one level after the counts of the assembly visited last have been found or calculated.
+     */
+    void exit() {
+        depth--;
+    }
+
+    /**
+     * Counts the single pass of the frozen explosion over all reachable assemblies.
+     *
+     * @param reachedCount the amount of reachable assemblies, each visited once
+     * @param levelCount the amount of levels of the reachable assemblies
+     */
+    void countPass(int reachedCount, int levelCount) {
+        visitCount += reachedCount;
+        distinctCount += reachedCount;
+        maxDepth = Math.max(maxDepth, levelCount);
+    }
+
+    /**
+     * Counts an allocated map of part counts.
+     */
+    void countMap() {
+        allocatedMapCount++;
+    }
+
+    /**
+     * Creates the cost of the query.
+     *
+     * @param frozen whether the query has been answered from the frozen snapshot
+     * @param resultSize the amount of parts in the result
+     * @return the cost
+     */
+    QueryCost toQueryCost(boolean frozen, int resultSize) {
+        return new QueryCost(frozen, visitCount, distinctCount, maxDepth, allocatedMapCount,
+                             cacheHitCount, cacheMissCount, resultSize);
+    }
+}
@@ -0,0 +1,247 @@
+package edu.kit.informatik.logic;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * An immutable snapshot of the product structure in compressed sparse row layout.
+ *
+ * The parts of the assembly with ID i are stored at the indices offsets[i] to offsets[i + 1] - 1
+ * of the partIds and amounts arrays, so components simply have an empty range.
+ * Additionally the low-level code of every assembly is precomputed: the deepest level it occurs at
+ * below any root, which orders every BOM before all of its parts.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+final class FrozenGraph {
+    private final int[] offsets;
+    private final int[] partIds;
+    private final int[] amounts;
+    private final int[] lowLevelCodes;
+    private final int maxLowLevelCode;
+
+    /**
+     * Compiles a snapshot of the given BOMs.
+     *
+     * @param boms the BOMs indexed by their ID, null for IDs that are no BOM
+     * @param size the amount of IDs to include
+     */
+    FrozenGraph(Assembly[] boms, int size) {
+        offsets = new int[size + 1];
+        for (int id = 0; id < size; id++) {
+            offsets[id + 1] = offsets[id] + (boms[id] == null ? 0 : boms[id].getParts().size());
+        }
+
+        partIds = new int[offsets[size]];
+        amounts = new int[offsets[size]];
+        for (int id = 0; id < size; id++) {
+            if (boms[id] != null) {
+                AmountList parts = boms[id].getParts();
+                for (int i = 0; i < parts.size(); i++) {
+                    partIds[offsets[id] + i] = parts.getId(i);
+                    amounts[offsets[id] + i] = parts.getAmount(i);
+                }
+            }
+        }
+
+        lowLevelCodes = new int[size];
+        maxLowLevelCode = calculateLowLevelCodes();
+    }
+
+    /**
+     * Determines whether the assembly with the given ID is a BOM.
+     *
+     * @param id the ID of the assembly
+     * @return whether it is a BOM
+     */
+    boolean isBOM(int id) {
+        return offsets[id + 1] > offsets[id];
+    }
+
+    /**
+     * Explodes a BOM into the total counts of all parts with the given assembly type.
+     *
+     * All assemblies below the BOM are visited exactly once in the order of their low-level codes,
+     * so the gross requirement of each assembly is complete before it is passed on to its parts.
+     *
+     * @param bomId the ID of the BOM
+     * @param assemblyType the type of the assembly
+     * @param counter the counter to accumulate the requirements in
+     * @return the part counts
+     */
+    PartCounts explode(int bomId, AssemblyType assemblyType, PartCounter counter) {
+        int[] reached = collectReachable(new int[] {bomId});
+        counter.countVisits(reached.length);
+        ExplosionProbe probe = counter.getProbe();
+        if (probe != null) {
+            int maxLevel = lowLevelCodes[bomId];
+            for (int id : reached) {
+                maxLevel = Math.max(maxLevel, lowLevelCodes[id]);
+            }
+            probe.countPass(reached.length, maxLevel - lowLevelCodes[bomId] + 1);
+            // the accumulated and the filtered requirements
+            probe.countMap();
+            probe.countMap();
+        }
+
+        for (int id : sortByLowLevelCode(reached)) {
+            long requirement = id == bomId ? 1 : counter.get(id);
+            for (int i = offsets[id]; i < offsets[id + 1]; i++) {
+                counter.add(partIds[i], requirement * amounts[i]);
+            }
+        }
+
+        return filterByType(counter.toPartCounts(), assemblyType);
+    }
+
+    /**
+     * Explodes several BOMs at once into the total counts of all parts they require for the given demands.
+     *
+     * All assemblies below any of the BOMs are visited exactly once in the order of their low-level codes,
+     * so subassemblies shared by several BOMs are passed on to their parts only once.
+     * The demands themselves are not part of the requirements, only what the BOMs need to fulfil them,
+     * a BOM used by another one is therefore only required for the demand of the other one.
+     *
+     * @param bomIds the IDs of the BOMs, all distinct
+     * @param demands the demanded amount of each BOM, all positive
+     * @param counter the counter to accumulate the requirements in
+     * @return the part counts indexed by the ordinal of their assembly type
+     * @throws ArithmeticException when a requirement does not fit into a long, the counter has to be reset then
+     */
+    PartCounts[] plan(int[] bomIds, long[] demands, PartCounter counter) {
+        int[] reached = collectReachable(bomIds);
+        counter.countVisits(reached.length);
+        for (int i = 0; i < bomIds.length; i++) {
+            counter.add(bomIds[i], demands[i]);
+        }
+
+        for (int id : sortByLowLevelCode(reached)) {
+            long requirement = counter.get(id);
+            for (int i = offsets[id]; i < offsets[id + 1]; i++) {
+                counter.addExact(partIds[i], requirement, amounts[i]);
+            }
+        }
+        for (int i = 0; i < bomIds.length; i++) {
+            counter.add(bomIds[i], -demands[i]);
+        }
+
+        PartCounts requirements = counter.toPartCounts();
+        PartCounts[] countsByType = new PartCounts[AssemblyType.values().length];
+        for (AssemblyType assemblyType : AssemblyType.values()) {
+            countsByType[assemblyType.ordinal()] = filterByType(requirements, assemblyType);
+        }
+        return countsByType;
+    }
+
+    /**
+     * Filters requirements by the assembly type, dropping those that have been cancelled out.
+     *
+     * @param requirements the requirements
+     * @param assemblyType the type of the assembly
+     * @return the part counts
+     */
+    private PartCounts filterByType(PartCounts requirements, AssemblyType assemblyType) {
+        int[] ids = new int[requirements.size()];
+        long[] counts = new long[requirements.size()];
+        int size = 0;
+
+        for (int i = 0; i < requirements.size(); i++) {
+            int id = requirements.getId(i);
+            if (requirements.getCount(i) != 0 && isBOM(id) == (assemblyType == AssemblyType.BOM)) {
+                ids[size] = id;
+                counts[size] = requirements.getCount(i);
+                size++;
+            }
+        }
+        return new PartCounts(Arrays.copyOf(ids, size), Arrays.copyOf(counts, size));
+    }
+
+    /**
+     * Collects the IDs of the given BOMs and all assemblies below them.
+     *
+     * @param bomIds the IDs of the BOMs, all distinct
+     * @return the IDs of all reachable assemblies
+     */
+    private int[] collectReachable(int[] bomIds) {
+        BitSet visited = new BitSet();
+        int[] reached = Arrays.copyOf(bomIds, Math.max(bomIds.length * 2, 16));
+        int reachedCount = bomIds.length;
+
+        for (int bomId : bomIds) {
+            visited.set(bomId);
+        }
+        // the reached list doubles as work list, everything behind the cursor still has to be expanded
+        for (int cursor = 0; cursor < reachedCount; cursor++) {
+            int id = reached[cursor];
+            for (int i = offsets[id]; i < offsets[id + 1]; i++) {
+                if (!visited.get(partIds[i])) {
+                    visited.set(partIds[i]);
+                    if (reachedCount == reached.length) {
+                        reached = Arrays.copyOf(reached, reachedCount * 2);
+                    }
+                    reached[reachedCount++] = partIds[i];
+                }
+            }
+        }
+        return Arrays.copyOf(reached, reachedCount);
+    }
+
+    /**
+     * Sorts IDs by their low-level code using counting sort.
+     *
+     * @param ids the IDs
+     * @return the IDs in ascending order of their low-level code
+     */
+    private int[] sortByLowLevelCode(int[] ids) {
+        int[] levelStarts = new int[maxLowLevelCode + 2];
+        for (int id : ids) {
+            levelStarts[lowLevelCodes[id] + 1]++;
+        }
+        for (int level = 0; level <= maxLowLevelCode; level++) {
+            levelStarts[level + 1] += levelStarts[level];
+        }
+
+        int[] sorted = new int[ids.length];
+        for (int id : ids) {
+            sorted[levelStarts[lowLevelCodes[id]]++] = id;
+        }
+        return sorted;
+    }
+
+    /**
+     * Calculates the low-level codes of all assemblies by processing them in topological order (Kahn).
+     *
+     * @return the highest low-level code
+     */
+    private int calculateLowLevelCodes() {
+        int size = lowLevelCodes.length;
+        int[] parentCounts = new int[size];
+        for (int partId : partIds) {
+            parentCounts[partId]++;
+        }
+
+        int[] queue = new int[size];
+        int queueEnd = 0;
+        for (int id = 0; id < size; id++) {
+            if (parentCounts[id] == 0) {
+                queue[queueEnd++] = id;
+            }
+        }
+
+        int maxLevel = 0;
+        for (int queueStart = 0; queueStart < queueEnd; queueStart++) {
+            int id = queue[queueStart];
+            maxLevel = Math.max(maxLevel, lowLevelCodes[id]);
+
+            for (int i = offsets[id]; i < offsets[id + 1]; i++) {
+                int partId = partIds[i];
+                lowLevelCodes[partId] = Math.max(lowLevelCodes[partId], lowLevelCodes[id] + 1);
+                if (--parentCounts[partId] == 0) {
+                    queue[queueEnd++] = partId;
+                }
+            }
+        }
+        return maxLevel;
+    }
+}
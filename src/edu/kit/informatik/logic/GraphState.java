@@ -0,0 +1,22 @@
+package edu.kit.informatik.logic;
+
+/**
+ * The state of the product structure that explosion queries of a workbench are answered from.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+public enum GraphState {
+    /**
+     * the state LIVE means that queries run on the live, mutable product structure.
+     */
+    LIVE,
+    /**
+     * the state FROZEN means that queries run on an up to date frozen snapshot of the product structure.
+     */
+    FROZEN,
+    /**
+     * the state STALE means that the frozen snapshot is outdated and will be rebuilt by the next query.
+     */
+    STALE
+}
@@ -0,0 +1,469 @@
+package edu.kit.informatik.logic;
+
+import edu.kit.informatik.logic.exceptions.InvalidJournalException;
+import edu.kit.informatik.util.AtomicFiles;
+import edu.kit.informatik.util.DaemonExecutors;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only write-ahead journal of all mutations applied to a workbench.
+ *
+ * The journal starts with a magic number and the format version, followed by one record per mutation.
+ * A record consists of the length of its payload as fixed size int, the payload and its CRC32 checksum.
+ * The payload starts with the version of the workbench after the mutation and the type of the mutation.
+ * Records whose version is already contained in the snapshot the workbench has been loaded from are skipped
+ * on replay, a torn record at the end of the journal is cut off.
+ *
+ * Records are collected in memory and only written and forced to disk once a configurable amount of records
+ * is pending or a configurable time has passed (group commit), so not every mutation has to wait for the disk.
+ * Failing to write the journal is not recoverable: the failure is latched, reported to the failure handler
+ * and every further append is refused with an UncheckedIOException.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+final class Journal {
+    private static final int MAGIC_NUMBER = 0x424F4D4A;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = Integer.BYTES + 1;
+    private static final byte SET_BOM = 1;
+    private static final byte REMOVE_BOM = 2;
+    private static final byte ADD_PART = 3;
+    private static final byte REMOVE_PART = 4;
+    private static final byte BATCH = 5;
+    private static final String SYNC_THREAD_NAME = "journal-sync";
+
+    private final Path file;
+    private FileChannel channel;
+    private final int syncCount;
+    private final long syncNanos;
+    /**
+     * Forces pending records to disk once the sync time has passed, even if no further record is appended.
+     */
+    private ScheduledExecutorService syncTimer;
+    /**
+     * The framed records that have not been written yet.
+     */
+    private final BinaryOutput pendingRecords;
+    private final BinaryOutput payload;
+    private final CRC32 checksum;
+    private int pendingCount;
+    private long lastSyncTime;
+    /**
+     * The first failure to write the journal, null if every write has succeeded.
+     */
+    private IOException syncFailure;
+    /**
+     * Called with the failure once the journal cannot be written after the replay, null until appending starts.
+     */
+    private Consumer<IOException> failureHandler;
+
+    /**
+     * Opens a journal file, creating it if it does not exist.
+     *
+     * @param file the journal file
+     * @param syncCount the amount of pending records that are forced to disk at once
+     * @param syncMillis the time in milliseconds after which pending records are forced to disk, 0 for no limit
+     * @throws IOException when the file cannot be opened
+     */
+    Journal(Path file, int syncCount, long syncMillis) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                                        StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.syncCount = Math.max(syncCount, 1);
+        this.syncNanos = TimeUnit.MILLISECONDS.toNanos(syncMillis);
+        this.syncTimer = null;
+        this.pendingRecords = new BinaryOutput();
+        this.payload = new BinaryOutput();
+        this.checksum = new CRC32();
+        this.pendingCount = 0;
+        this.lastSyncTime = System.nanoTime();
+        this.syncFailure = null;
+        this.failureHandler = null;
+    }
+
+    /**
+     * Stages all records that are newer than the given version in a batch and prepares the journal for appending.
+     * The mutations are not validated against cycles, since they have been checked when they were applied.
+     *
+     * @param batch the batch to stage the mutations in
+     * @param version the version of the workbench before the replay
+     * @return the version of the workbench after the replayed mutations
+     * @throws IOException when the file cannot be read
+     * @throws InvalidJournalException when the file is no journal, misses records after the given version
+     *                                 or contains mutations that cannot be applied
+     */
+    long replay(MutationBatch batch, long version) throws IOException, InvalidJournalException {
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE) {
+            throw new InvalidJournalException(file.toString());
+        } else if (size < HEADER_SIZE) {
+            // the journal is new or the process stopped while it was created
+            channel.truncate(0);
+            writeHeader(pendingRecords);
+            sync();
+            return version;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) size);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, buffer.position()) < 0) {
+                break;
+            }
+        }
+        buffer.flip();
+        BinaryInput input = new BinaryInput(buffer);
+        long replayedVersion = version;
+        int validEnd;
+
+        try {
+            if (input.readInt() != MAGIC_NUMBER || input.readVarint() != FORMAT_VERSION) {
+                throw new InvalidJournalException(file.toString());
+            }
+            validEnd = input.position();
+
+            while (input.remaining() > 0) {
+                ByteBuffer record = readRecord(input);
+                if (record == null) {
+                    break;
+                }
+                validEnd = input.position();
+
+                BinaryInput recordInput = new BinaryInput(record);
+                long recordVersion = recordInput.readVarlong();
+                if (recordVersion <= version) {
+                    continue;
+                } else if (recordVersion != replayedVersion + 1) {
+                    throw new InvalidJournalException(file.toString());
+                }
+                replayedVersion = recordVersion;
+                replayMutation(recordInput, recordInput.readByte(), batch);
+            }
+        } catch (BufferUnderflowException | NumberFormatException e) {
+            throw new InvalidJournalException(file.toString());
+        }
+
+        if (batch.getFirstError() != null) {
+            throw new InvalidJournalException(file.toString());
+        }
+        channel.truncate(validEnd);
+        channel.position(validEnd);
+        return replayedVersion;
+    }
+
+    /**
+     * Gets the name of the journal file.
+     *
+     * @return the file name
+     */
+    String getFileName() {
+        return file.toString();
+    }
+
+    /**
+     * Forces all pending records to disk, so all following records belong to mutations after the checkpoint.
+     *
+     * @return the position of the first record after the checkpoint
+     * @throws IOException when the journal cannot be written
+     */
+    synchronized long markCheckpoint() throws IOException {
+        sync();
+        return channel.position();
+    }
+
+    /**
+     * Removes all records before the given position by replacing the journal with a copy of the following records.
+     * Appending is blocked while the copy is written, which only contains the records since the checkpoint.
+     *
+     * @param position the position of the first record to keep
+     * @throws IOException when the journal cannot be written
+     */
+    synchronized void truncateBefore(long position) throws IOException {
+        sync();
+        long end = channel.position();
+
+        AtomicFiles.replace(file, truncatedChannel -> {
+            BinaryOutput header = new BinaryOutput();
+            writeHeader(header);
+            header.transferTo(truncatedChannel);
+
+            for (long offset = position; offset < end; ) {
+                offset += channel.transferTo(offset, end - offset, truncatedChannel);
+            }
+        });
+
+        channel.close();
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+    }
+
+    /**
+     * Prepares the journal for appending after the replay and starts forcing pending records to disk
+     * in the background once the sync time has passed.
+     *
+     * @param handler called with the failure once the journal cannot be written, the records pending at that time
+     *                are lost while their mutations have already been applied
+     */
+    synchronized void startAppending(Consumer<IOException> handler) {
+        failureHandler = handler;
+        if (syncNanos > 0 && syncTimer == null) {
+            syncTimer = DaemonExecutors.newSingleThreadScheduledExecutor(SYNC_THREAD_NAME);
+            syncTimer.scheduleWithFixedDelay(this::syncPendingRecords, syncNanos, syncNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Appends the addition or replacement of a BOM.
+     *
+     * @param version the version of the workbench after the mutation
+     * @param symbols the symbol table of the workbench
+     * @param bom the BOM
+     */
+    synchronized void appendSetBOM(long version, SymbolTable symbols, Assembly bom) {
+        startRecord(version, SET_BOM);
+        writeBOM(symbols, bom);
+        finishRecord();
+    }
+
+    /**
+     * Appends the removal of a BOM.
+     *
+     * @param version the version of the workbench after the mutation
+     * @param bomName the name of the BOM
+     */
+    synchronized void appendRemoveBOM(long version, String bomName) {
+        startRecord(version, REMOVE_BOM);
+        payload.writeName(bomName);
+        finishRecord();
+    }
+
+    /**
+     * Appends the addition or removal of an amount of a part.
+     *
+     * @param version the version of the workbench after the mutation
+     * @param isAddition whether the amount has been added to the BOM
+     * @param bomName the name of the BOM
+     * @param partName the name of the part
+     * @param amount the amount of the part
+     */
+    synchronized void appendPartChange(long version, boolean isAddition, String bomName, String partName,
+                                       long amount) {
+        startRecord(version, isAddition ? ADD_PART : REMOVE_PART);
+        payload.writeName(bomName);
+        payload.writeName(partName);
+        payload.writeVarint(amount);
+        finishRecord();
+    }
+
+    /**
+     * Appends a committed batch as the new state of every touched BOM.
+     *
+     * @param version the version of the workbench after the batch
+     * @param symbols the symbol table of the workbench
+     * @param stagedBoms a map of BOM IDs and the respective new BOM, null for BOMs that have been removed
+     */
+    synchronized void appendBatch(long version, SymbolTable symbols, Map<Integer, Assembly> stagedBoms) {
+        startRecord(version, BATCH);
+        payload.writeVarint(stagedBoms.size());
+        for (Map.Entry<Integer, Assembly> stagedBom : stagedBoms.entrySet()) {
+            if (stagedBom.getValue() == null) {
+                payload.writeByte(REMOVE_BOM);
+                payload.writeName(symbols.getName(stagedBom.getKey()));
+            } else {
+                payload.writeByte(SET_BOM);
+                writeBOM(symbols, stagedBom.getValue());
+            }
+        }
+        finishRecord();
+    }
+
+    /**
+     * Forces all pending records to disk and closes the journal.
+     *
+     * @throws IOException when the journal cannot be written
+     */
+    synchronized void close() throws IOException {
+        if (syncTimer != null) {
+            syncTimer.shutdown();
+        }
+        try {
+            sync();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Writes the magic number and the format version.
+     *
+     * @param output the output to write to
+     */
+    private static void writeHeader(BinaryOutput output) {
+        output.writeInt(MAGIC_NUMBER);
+        output.writeVarint(FORMAT_VERSION);
+    }
+
+    /**
+     * Reads a record and verifies its checksum.
+     *
+     * @param input the input to read from
+     * @return the payload of the record or null if the record is torn
+     */
+    private ByteBuffer readRecord(BinaryInput input) {
+        try {
+            int length = input.readInt();
+            ByteBuffer record = input.readSlice(length);
+            int expectedChecksum = input.readInt();
+
+            checksum.reset();
+            checksum.update(record.duplicate());
+            return (int) checksum.getValue() == expectedChecksum ? record : null;
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Stages a single mutation of a record in a batch.
+     *
+     * @param input the input positioned behind the type of the mutation
+     * @param type the type of the mutation
+     * @param batch the batch to stage the mutation in
+     */
+    private void replayMutation(BinaryInput input, byte type, MutationBatch batch) {
+        switch (type) {
+            case SET_BOM:
+                String bomName = input.readName();
+                int partCount = input.readVarint();
+                Map<String, Long> partEntries = new HashMap<>();
+                for (int i = 0; i < partCount; i++) {
+                    partEntries.put(input.readName(), (long) input.readVarint());
+                }
+                batch.putBOM(bomName, partEntries);
+                break;
+            case REMOVE_BOM:
+                batch.removeBOM(input.readName());
+                break;
+            case ADD_PART:
+                batch.addPartAmountToBOM(input.readName(), input.readName(), input.readVarint());
+                break;
+            case REMOVE_PART:
+                batch.removePartAmountFromBOM(input.readName(), input.readName(), input.readVarint());
+                break;
+            case BATCH:
+                int mutationCount = input.readVarint();
+                for (int i = 0; i < mutationCount; i++) {
+                    byte mutationType = input.readByte();
+                    if (mutationType != SET_BOM && mutationType != REMOVE_BOM) {
+                        throw new NumberFormatException();
+                    }
+                    replayMutation(input, mutationType, batch);
+                }
+                break;
+            default:
+                throw new NumberFormatException();
+        }
+    }
+
+    /**
+     * Writes the name of a BOM followed by the names and amounts of its parts to the payload.
+     *
+     * @param symbols the symbol table of the workbench
+     * @param bom the BOM
+     */
+    private void writeBOM(SymbolTable symbols, Assembly bom) {
+        AmountList parts = bom.getParts();
+        payload.writeName(bom.getName());
+        payload.writeVarint(parts.size());
+        for (int i = 0; i < parts.size(); i++) {
+            payload.writeName(symbols.getName(parts.getId(i)));
+            payload.writeVarint(parts.getAmount(i));
+        }
+    }
+
+    /**
+     * Starts the payload of a new record.
+     *
+     * @param version the version of the workbench after the mutation
+     * @param type the type of the mutation
+     */
+    private void startRecord(long version, byte type) {
+        payload.reset();
+        payload.writeVarint(version);
+        payload.writeByte(type);
+    }
+
+    /**
+     * Frames the payload as pending record and forces the pending records to disk if the sync limit is reached.
+     *
+     * @throws UncheckedIOException when the journal cannot be written
+     */
+    private void finishRecord() {
+        if (syncFailure != null) {
+            throw new UncheckedIOException(syncFailure);
+        }
+        checksum.reset();
+        checksum.update(payload.getBytes(), 0, payload.size());
+        pendingRecords.writeInt(payload.size());
+        pendingRecords.writeBytes(payload.getBytes(), 0, payload.size());
+        pendingRecords.writeInt((int) checksum.getValue());
+        pendingCount++;
+
+        try {
+            if (pendingCount >= syncCount || (syncNanos > 0 && System.nanoTime() - lastSyncTime >= syncNanos)) {
+                sync();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Forces the pending records to disk if there are any, called by the sync timer.
+     */
+    private synchronized void syncPendingRecords() {
+        if (pendingCount > 0 && syncFailure == null && channel.isOpen()) {
+            try {
+                sync();
+            } catch (IOException e) {
+                // latched and reported by sync, the next append is refused
+            }
+        }
+    }
+
+    /**
+     * Writes the pending records and forces them to disk.
+     * A failure is latched, so the journal is never written again after a record may have been lost.
+     *
+     * @throws IOException when the journal cannot be written
+     */
+    private void sync() throws IOException {
+        if (syncFailure != null) {
+            throw syncFailure;
+        }
+        try {
+            pendingRecords.transferTo(channel);
+            channel.force(false);
+        } catch (IOException e) {
+            syncFailure = e;
+            if (failureHandler != null) {
+                failureHandler.accept(e);
+            }
+            throw e;
+        }
+        pendingCount = 0;
+        lastSyncTime = System.nanoTime();
+    }
+}
@@ -0,0 +1,378 @@
+package edu.kit.informatik.logic;
+
+import edu.kit.informatik.logic.exceptions.*;
+
+import java.util.*;
+
+/**
+ * The mutations staged in a batch of a workbench.
+ *
+ * Every BOM touched by the batch is copied on first write, so the mutations are applied to an overlay
+ * of the product structure while the workbench itself stays unaltered until the batch is committed.
+ * The first failing mutation is remembered and all later mutations are ignored, as the batch will be rolled back.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+final class MutationBatch {
+    private final Workbench workbench;
+    private final SymbolTable symbols;
+    /**
+     * The new state of every touched BOM in order of the first touch, null for BOMs that have been removed.
+     */
+    private final Map<Integer, Assembly> stagedBoms;
+    /**
+     * The IDs of all BOMs that have been added by the batch.
+     */
+    private final Set<Integer> addedBomIds;
+    private LogicException firstError;
+
+    /**
+     * Instantiates a new empty MutationBatch.
+     *
+     * @param workbench the workbench the batch belongs to
+     * @param symbols the symbol table of the workbench
+     */
+    MutationBatch(Workbench workbench, SymbolTable symbols) {
+        this.workbench = workbench;
+        this.symbols = symbols;
+        this.stagedBoms = new LinkedHashMap<>();
+        this.addedBomIds = new HashSet<>();
+        this.firstError = null;
+    }
+
+    /**
+     * Gets the new state of all touched BOMs.
+     *
+     * @return a map of BOM IDs and the respective BOM, null for BOMs that have been removed
+     */
+    Map<Integer, Assembly> getStagedBOMs() {
+        return stagedBoms;
+    }
+
+    /**
+     * Gets the error of the first mutation that failed.
+     *
+     * @return the error or null if all mutations succeeded
+     */
+    LogicException getFirstError() {
+        return firstError;
+    }
+
+    /**
+     * Stages adding a BOM.
+     *
+     * @param bomName the name of the BOM
+     * @param partEntries the part entries of the BOM
+     */
+    void addBOM(String bomName, Map<String, Long> partEntries) {
+        stage(() -> {
+            Assembly bom = workbench.createAssembly(bomName, partEntries);
+            if (isBOM(bom.getId())) {
+                throw new AssemblyExistsException(bom.getName());
+            }
+            stagedBoms.put(bom.getId(), bom);
+            addedBomIds.add(bom.getId());
+        });
+    }
+
+    /**
+     * Adds a new BOM to the overlay right away, unless it creates a cycle in the staged structure.
+     * Unlike the other mutations it fails on its own instead of failing the batch.
+     *
+     * @param bom the BOM to add, which is no BOM of the overlay yet
+     * @param isKnown whether the name of the BOM has been known before, otherwise no other BOM can use it yet
+     * @throws AssemblyCreatesCycleException when the BOM would create a cycle
+     */
+    void addCheckedBOM(Assembly bom, boolean isKnown) throws AssemblyCreatesCycleException {
+        AmountList parts = bom.getParts();
+        BitSet visited = new BitSet();
+        for (int i = 0; i < parts.size(); i++) {
+            // a BOM with a new name can only close a cycle by using itself
+            if (!isKnown && parts.getId(i) != bom.getId()) {
+                continue;
+            }
+            List<Integer> path = new ArrayList<>();
+            if (findPath(parts.getId(i), bom.getId(), visited, path)) {
+                // the trace starts and ends with the part, just like for a single mutation
+                List<String> trace = new ArrayList<>(path.size() + 1);
+                for (int assemblyId : path) {
+                    trace.add(symbols.getName(assemblyId));
+                }
+                trace.add(trace.get(0));
+                throw new AssemblyCreatesCycleException(bom, trace);
+            }
+        }
+        stagedBoms.put(bom.getId(), bom);
+        addedBomIds.add(bom.getId());
+    }
+
+    /**
+     * Stages adding or replacing a BOM without checking whether it already exists.
+     *
+     * @param bomName the name of the BOM
+     * @param partEntries the part entries of the BOM
+     */
+    void putBOM(String bomName, Map<String, Long> partEntries) {
+        stage(() -> {
+            Assembly bom = workbench.createAssembly(bomName, partEntries);
+            stagedBoms.put(bom.getId(), bom);
+        });
+    }
+
+    /**
+     * Stages removing a BOM.
+     *
+     * @param bomName the name of the BOM
+     */
+    void removeBOM(String bomName) {
+        stage(() -> stagedBoms.put(getBOM(bomName).getId(), null));
+    }
+
+    /**
+     * Stages adding the given amount of a part to a BOM.
+     *
+     * @param bomName  the name of the BOM
+     * @param partName the name of the part to add
+     * @param amount   the amount of the part
+     */
+    void addPartAmountToBOM(String bomName, String partName, long amount) {
+        stage(() -> getStagedCopy(bomName).addPartAmount(workbench.intern(partName), amount));
+    }
+
+    /**
+     * Stages removing the given amount of a part from a BOM.
+     *
+     * @param bomName  the name of the BOM
+     * @param partName the name of the part to remove
+     * @param amount   the amount of the part
+     */
+    void removePartAmountFromBOM(String bomName, String partName, long amount) {
+        stage(() -> {
+            Assembly bom = getStagedCopy(bomName);
+            int partId = symbols.getId(partName);
+            if (partId == SymbolTable.NO_ID) {
+                throw new PartNotExistingException(bomName, partName);
+            }
+
+            bom.removePartAmount(partId, amount);
+            // remove the assembly from the boms when it is empty and therefore a component
+            if (bom.getParts().isEmpty()) {
+                stagedBoms.put(bom.getId(), null);
+            }
+        });
+    }
+
+    /**
+     * Stages a mutation that has already been found invalid before it reached the workbench,
+     * so the batch fails just like for any other invalid mutation.
+     *
+     * @param error the error of the mutation
+     */
+    void reject(LogicException error) {
+        stage(() -> {
+            throw error;
+        });
+    }
+
+    /**
+     * Checks the staged product structure for cycles in a single depth-first search over all touched BOMs
+     * and everything below them, since every new cycle has to pass a touched BOM.
+     *
+     * @throws LogicException when the staged product structure contains a cycle
+     */
+    void checkCycles() throws LogicException {
+        BitSet visiting = new BitSet();
+        BitSet visited = new BitSet();
+        List<Integer> path = new ArrayList<>();
+
+        for (int bomId : stagedBoms.keySet()) {
+            List<Integer> cycle = findCycle(bomId, visiting, visited, path);
+            if (cycle != null) {
+                throw createCycleException(cycle);
+            }
+        }
+    }
+
+    /**
+     * Searches a cycle below an assembly in the staged product structure.
+     *
+     * @param assemblyId the ID of the assembly to search from
+     * @param visiting the assemblies on the current path
+     * @param visited the assemblies below which no cycle exists
+     * @param path the current path
+     * @return the cycle starting and ending with the same assembly or null if no cycle has been found
+     */
+    private List<Integer> findCycle(int assemblyId, BitSet visiting, BitSet visited, List<Integer> path) {
+        if (visiting.get(assemblyId)) {
+            List<Integer> cycle = new ArrayList<>(path.subList(path.indexOf(assemblyId), path.size()));
+            cycle.add(assemblyId);
+            return cycle;
+        } else if (visited.get(assemblyId) || !isBOM(assemblyId)) {
+            return null;
+        }
+
+        visiting.set(assemblyId);
+        path.add(assemblyId);
+        AmountList parts = getBOM(assemblyId).getParts();
+
+        for (int i = 0; i < parts.size(); i++) {
+            List<Integer> cycle = findCycle(parts.getId(i), visiting, visited, path);
+            if (cycle != null) {
+                return cycle;
+            }
+        }
+        path.remove(path.size() - 1);
+        visiting.clear(assemblyId);
+        visited.set(assemblyId);
+        return null;
+    }
+
+    /**
+     * Searches a path from an assembly down to a target in the staged product structure.
+     *
+     * @param assemblyId the ID of the assembly to search from
+     * @param targetId the ID of the target
+     * @param visited the assemblies from which the target cannot be reached
+     * @param path the path from the first assembly to the current assembly, the whole path if the target is reached
+     * @return whether the target has been reached
+     */
+    private boolean findPath(int assemblyId, int targetId, BitSet visited, List<Integer> path) {
+        path.add(assemblyId);
+        if (assemblyId == targetId) {
+            return true;
+        }
+        visited.set(assemblyId);
+
+        if (isBOM(assemblyId)) {
+            AmountList parts = getBOM(assemblyId).getParts();
+            for (int i = 0; i < parts.size(); i++) {
+                if (!visited.get(parts.getId(i)) && findPath(parts.getId(i), targetId, visited, path)) {
+                    return true;
+                }
+            }
+        }
+        path.remove(path.size() - 1);
+        return false;
+    }
+
+    /**
+     * Creates the exception for a cycle, blaming the first edge of the cycle that the batch has added.
+     * The trace starts and ends with the part of that edge, just like for a single mutation.
+     *
+     * @param cycle the cycle starting and ending with the same assembly
+     * @return the exception
+     */
+    private LogicException createCycleException(List<Integer> cycle) {
+        int length = cycle.size() - 1;
+        int edge = length - 1;
+        for (int i = 0; i < length; i++) {
+            if (isNewEdge(cycle.get(i), cycle.get(i + 1))) {
+                edge = i;
+                break;
+            }
+        }
+
+        List<String> trace = new ArrayList<>(length + 1);
+        for (int i = 1; i <= length; i++) {
+            trace.add(symbols.getName(cycle.get((edge + i) % length)));
+        }
+        trace.add(trace.get(0));
+
+        int bomId = cycle.get(edge);
+        if (addedBomIds.contains(bomId)) {
+            return new AssemblyCreatesCycleException(stagedBoms.get(bomId), trace);
+        }
+        return new PartHasCycleException(symbols.getName(bomId), symbols.getName(cycle.get(edge + 1)), trace);
+    }
+
+    /**
+     * Determines whether the batch has added a BOM to part relation.
+     *
+     * @param bomId the ID of the BOM
+     * @param partId the ID of the part
+     * @return whether the committed BOM does not contain the part yet
+     */
+    private boolean isNewEdge(int bomId, int partId) {
+        Assembly committedBom = workbench.getBOMById(bomId);
+        return stagedBoms.containsKey(bomId) && (committedBom == null || committedBom.getPartAmount(partId) == 0);
+    }
+
+    /**
+     * Applies a mutation to the overlay unless a previous mutation already failed.
+     *
+     * @param mutation the mutation
+     */
+    private void stage(StagedMutation mutation) {
+        if (firstError == null) {
+            try {
+                mutation.apply();
+            } catch (LogicException e) {
+                firstError = e;
+            }
+        }
+    }
+
+    /**
+     * Gets a BOM of the overlay and copies it into the overlay first if it has not been touched yet.
+     *
+     * @param bomName the name of the BOM
+     * @return the BOM that may be altered
+     * @throws LogicException when no BOM with the given name exists in the overlay
+     */
+    private Assembly getStagedCopy(String bomName) throws LogicException {
+        Assembly bom = getBOM(bomName);
+        if (!stagedBoms.containsKey(bom.getId())) {
+            bom = new Assembly(bom);
+            stagedBoms.put(bom.getId(), bom);
+        }
+        return bom;
+    }
+
+    /**
+     * Gets a BOM of the overlay.
+     *
+     * @param bomName the name of the BOM
+     * @return the BOM
+     * @throws LogicException when no BOM with the given name exists in the overlay
+     */
+    private Assembly getBOM(String bomName) throws LogicException {
+        int bomId = symbols.getId(bomName);
+        if (bomId == SymbolTable.NO_ID || !isBOM(bomId)) {
+            throw new AssemblyNotExistingException(bomName);
+        }
+        return getBOM(bomId);
+    }
+
+    /**
+     * Gets a BOM of the overlay.
+     *
+     * @param bomId the ID of the BOM
+     * @return the BOM or null if the ID is no BOM in the overlay
+     */
+    private Assembly getBOM(int bomId) {
+        return stagedBoms.containsKey(bomId) ? stagedBoms.get(bomId) : workbench.getBOMById(bomId);
+    }
+
+    /**
+     * Determines whether an ID is a BOM in the overlay.
+     *
+     * @param assemblyId the ID of the assembly
+     * @return whether it is a BOM
+     */
+    boolean isBOM(int assemblyId) {
+        return getBOM(assemblyId) != null;
+    }
+
+    /**
+     * A mutation applied to the overlay.
+     */
+    private interface StagedMutation {
+        /**
+         * Applies the mutation.
+         *
+         * @throws LogicException when the mutation fails
+         */
+        void apply() throws LogicException;
+    }
+}
@@ -0,0 +1,154 @@
+package edu.kit.informatik.logic;
+
+import java.util.Arrays;
+
+/**
+ * A reusable accumulator that sums up counts per part ID and turns them into PartCounts.
+ *
+ * Counts are kept in an array indexed by ID, so adding to a count needs neither hashing nor boxing.
+ * Only the touched entries are reset, so a run costs time proportional to its result size.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+final class PartCounter {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long[] counts;
+    private int[] touchedIds;
+    private int touchedCount;
+    /**
+     * The amount of assemblies visited by the current query, reported to the flight recorder.
+     */
+    private int visitCount;
+    /**
+     * The probe counting the traversal of the current query, null if the query is not explained.
+     */
+    private ExplosionProbe probe;
+
+    /**
+     * Instantiates a new empty PartCounter.
+     */
+    PartCounter() {
+        counts = new long[INITIAL_CAPACITY];
+        touchedIds = new int[INITIAL_CAPACITY];
+        touchedCount = 0;
+    }
+
+    /**
+     * Adds a positive amount to the count of a part.
+     *
+     * @param id the ID of the part
+     * @param amount the amount to add
+     */
+    void add(int id, long amount) {
+        touch(id);
+        counts[id] += amount;
+    }
+
+    /**
+     * Adds the product of a positive amount and a positive factor to the count of a part,
+     * refusing to wrap around if the count no longer fits into a long.
+     * The counter is left in an undefined state on failure and has to be reset.
+     *
+     * @param id the ID of the part
+     * @param amount the amount to add
+     * @param factor the factor to multiply the amount with
+     * @throws ArithmeticException when the product or the count no longer fits into a long
+     */
+    void addExact(int id, long amount, long factor) {
+        long product = Math.multiplyExact(amount, factor);
+        touch(id);
+        counts[id] = Math.addExact(counts[id], product);
+    }
+
+    /**
+     * Makes room for the count of a part and remembers it for the reset, unless it has been touched before.
+     *
+     * @param id the ID of the part
+     */
+    private void touch(int id) {
+        if (id >= counts.length) {
+            counts = Arrays.copyOf(counts, Math.max(id + 1, counts.length * 2));
+        }
+        if (counts[id] == 0) {
+            if (touchedCount == touchedIds.length) {
+                touchedIds = Arrays.copyOf(touchedIds, touchedCount * 2);
+            }
+            touchedIds[touchedCount++] = id;
+        }
+    }
+
+    /**
+     * Gets the current count of a part.
+     *
+     * @param id the ID of the part
+     * @return the count or 0 if nothing has been added for the part
+     */
+    long get(int id) {
+        return id < counts.length ? counts[id] : 0;
+    }
+
+    /**
+     * Resets the amount of visited assemblies at the start of a query.
+     *
+     * @param queryProbe the probe counting the traversal of the query, null if the query is not explained
+     */
+    void startQuery(ExplosionProbe queryProbe) {
+        visitCount = 0;
+        probe = queryProbe;
+    }
+
+    /**
+     * Gets the probe counting the traversal of the current query.
+     *
+     * @return the probe, null if the query is not explained
+     */
+    ExplosionProbe getProbe() {
+        return probe;
+    }
+
+    /**
+     * Counts visited assemblies.
+     *
+     * @param count the amount of newly visited assemblies
+     */
+    void countVisits(int count) {
+        visitCount += count;
+    }
+
+    /**
+     * Gets the amount of assemblies visited since the last reset.
+     *
+     * @return the amount
+     */
+    int getVisitCount() {
+        return visitCount;
+    }
+
+    /**
+     * Creates PartCounts of all counts added so far and resets the counter.
+     *
+     * @return the accumulated counts
+     */
+    PartCounts toPartCounts() {
+        int[] ids = Arrays.copyOf(touchedIds, touchedCount);
+        long[] partCounts = new long[touchedCount];
+
+        for (int i = 0; i < touchedCount; i++) {
+            partCounts[i] = counts[ids[i]];
+        }
+        reset();
+        return new PartCounts(ids, partCounts);
+    }
+
+    /**
+     * Discards all counts added so far.
+     */
+    void reset() {
+        for (int i = 0; i < touchedCount; i++) {
+            counts[touchedIds[i]] = 0;
+        }
+        touchedCount = 0;
+    }
+}
@@ -0,0 +1,52 @@
+package edu.kit.informatik.logic;
+
+/**
+ * An immutable list of part IDs and their respective total count, e.g. the result of exploding a BOM.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+final class PartCounts {
+    private final int[] ids;
+    private final long[] counts;
+
+    /**
+     * Instantiates new PartCounts, taking ownership of the given arrays.
+     *
+     * @param ids the part IDs
+     * @param counts the count of the part with the same index
+     */
+    PartCounts(int[] ids, long[] counts) {
+        this.ids = ids;
+        this.counts = counts;
+    }
+
+    /**
+     * Gets the amount of parts.
+     *
+     * @return the amount of parts
+     */
+    int size() {
+        return ids.length;
+    }
+
+    /**
+     * Gets the ID of the part at the given index.
+     *
+     * @param index the index of the part
+     * @return the ID
+     */
+    int getId(int index) {
+        return ids[index];
+    }
+
+    /**
+     * Gets the count of the part at the given index.
+     *
+     * @param index the index of the part
+     * @return the count
+     */
+    long getCount(int index) {
+        return counts[index];
+    }
+}
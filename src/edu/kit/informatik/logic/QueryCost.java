@@ -0,0 +1,125 @@
+package edu.kit.informatik.logic;
+
+/**
+ * The traversal cost of a single explosion query, as measured by explaining it.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+public final class QueryCost {
+    private final boolean frozen;
+    private final int visitCount;
+    private final int distinctCount;
+    private final int maxDepth;
+    private final int allocatedMapCount;
+    private final int cacheHitCount;
+    private final int cacheMissCount;
+    private final int resultSize;
+
+    /**
+     * Instantiates a new QueryCost.
+     *
+     * @param frozen whether the query has been answered from the frozen snapshot
+     * @param visitCount the amount of visits of assemblies, counting repeated visits of shared assemblies
+     * @param distinctCount the amount of distinct assemblies visited
+     * @param maxDepth the deepest level visited below the queried BOM, the BOM itself being level 1,
+     *                 for the frozen snapshot the amount of low-level codes spanned by the single pass
+     * @param allocatedMapCount the amount of part count maps allocated
+     * @param cacheHitCount the amount of visits answered from the explosion cache
+     * @param cacheMissCount the amount of visits that had to calculate the counts of an assembly
+     * @param resultSize the amount of parts in the result
+     */
+    QueryCost(boolean frozen, int visitCount, int distinctCount, int maxDepth, int allocatedMapCount,
+              int cacheHitCount, int cacheMissCount, int resultSize) {
+        this.frozen = frozen;
+        this.visitCount = visitCount;
+        this.distinctCount = distinctCount;
+        this.maxDepth = maxDepth;
+        this.allocatedMapCount = allocatedMapCount;
+        this.cacheHitCount = cacheHitCount;
+        this.cacheMissCount = cacheMissCount;
+        this.resultSize = resultSize;
+    }
+
+    /**
+     * Determines whether the query has been answered from the frozen snapshot, which has no explosion cache.
+     *
+     * @return whether the query has been answered from the frozen snapshot
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Gets the amount of visits of assemblies, counting repeated visits of shared assemblies.
+     *
+     * @return the amount of visits
+     */
+    public int getVisitCount() {
+        return visitCount;
+    }
+
+    /**
+     * Gets the amount of distinct assemblies visited.
+     *
+     * @return the amount of distinct assemblies
+     */
+    public int getDistinctCount() {
+        return distinctCount;
+    }
+
+    /**
+     * Gets the average amount of visits per distinct assembly, 1 if no assembly has been visited twice.
+     *
+     * @return the revisit factor
+     */
+    public double getRevisitFactor() {
+        return distinctCount == 0 ? 1 : (double) visitCount / distinctCount;
+    }
+
+    /**
+     * Gets the deepest level visited below the queried BOM, the BOM itself being level 1.
+     * For the frozen snapshot it is the amount of low-level codes spanned by the single pass.
+     *
+     * @return the depth
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Gets the amount of part count maps allocated, including the map of the result.
+     *
+     * @return the amount of allocated maps
+     */
+    public int getAllocatedMapCount() {
+        return allocatedMapCount;
+    }
+
+    /**
+     * Gets the amount of visits answered from the explosion cache.
+     *
+     * @return the amount of cache hits
+     */
+    public int getCacheHitCount() {
+        return cacheHitCount;
+    }
+
+    /**
+     * Gets the amount of visits that had to calculate the counts of an assembly.
+     *
+     * @return the amount of cache misses
+     */
+    public int getCacheMissCount() {
+        return cacheMissCount;
+    }
+
+    /**
+     * Gets the amount of parts in the result.
+     *
+     * @return the result size
+     */
+    public int getResultSize() {
+        return resultSize;
+    }
+}
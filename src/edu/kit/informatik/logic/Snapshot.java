@@ -0,0 +1,245 @@
+package edu.kit.informatik.logic;
+
+import edu.kit.informatik.logic.exceptions.InvalidSnapshotException;
+import edu.kit.informatik.util.AtomicFiles;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A snapshot of the BOMs of a workbench, stored in a compact, versioned binary format.
+ *
+ * A snapshot starts with a magic number, the format version and the version of the workbench,
+ * followed by a dictionary of the names of all BOMs and components.
+ * Their position in the dictionary is their ID within the snapshot.
+ * It ends with the BOMs, each given by its ID, the amount of its parts and the ID and amount of every part.
+ * All numbers apart from the magic number are encoded as unsigned variable-length integers (LEB128).
+ *
+ * Since only acyclic product structures are ever written, a snapshot is loaded without any cycle checks.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+final class Snapshot {
+    private static final int MAGIC_NUMBER = 0x424F4D53;
+    /**
+     * The current format version, version 1 did not contain the version of the workbench yet.
+     */
+    private static final int FORMAT_VERSION = 2;
+    private static final int FIRST_FORMAT_VERSION = 1;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final long PART_AMOUNT_MAX = 1000;
+
+    private final Assembly[] boms;
+    private final long version;
+
+    /**
+     * Instantiates a new Snapshot.
+     *
+     * @param boms the BOMs indexed by their ID, null for IDs that are no BOM
+     * @param version the version of the workbench the snapshot has been taken at
+     */
+    private Snapshot(Assembly[] boms, long version) {
+        this.boms = boms;
+        this.version = version;
+    }
+
+    /**
+     * Gets the BOMs of the snapshot.
+     *
+     * @return the BOMs indexed by their ID, null for IDs that are no BOM
+     */
+    Assembly[] getBOMs() {
+        return boms;
+    }
+
+    /**
+     * Gets the version of the workbench the snapshot has been taken at.
+     *
+     * @return the version
+     */
+    long getVersion() {
+        return version;
+    }
+
+    /**
+     * Writes a snapshot of the given BOMs. The file is replaced atomically,
+     * so an interrupted write never leaves a broken snapshot behind.
+     *
+     * @param file the file to write to
+     * @param names the names of all assemblies indexed by their ID
+     * @param boms the BOMs indexed by their ID, null for IDs that are no BOM
+     * @param version the version of the workbench
+     * @param writtenBOMCount counts the BOMs that have been written, so the progress can be watched
+     * @throws IOException when the file cannot be written
+     */
+    static void write(Path file, String[] names, Assembly[] boms, long version, AtomicInteger writtenBOMCount)
+            throws IOException {
+        AtomicFiles.replace(file, channel -> writeContent(channel, names, boms, version, writtenBOMCount));
+    }
+
+    /**
+     * Writes the content of a snapshot of the given BOMs to a channel.
+     *
+     * @param channel the channel of the empty file
+     * @param names the names of all assemblies indexed by their ID
+     * @param boms the BOMs indexed by their ID, null for IDs that are no BOM
+     * @param version the version of the workbench
+     * @param writtenBOMCount counts the BOMs that have been written, so the progress can be watched
+     * @throws IOException when the file cannot be written
+     */
+    private static void writeContent(FileChannel channel, String[] names, Assembly[] boms, long version,
+                                     AtomicInteger writtenBOMCount) throws IOException {
+        int size = names.length;
+        int[] snapshotIds = new int[size];
+        int snapshotSize = 0;
+        int bomCount = 0;
+
+        // names neither used by nor belonging to any BOM are not written, so the IDs are compacted
+        Arrays.fill(snapshotIds, SymbolTable.NO_ID);
+        for (int id = 0; id < size; id++) {
+            if (boms[id] != null) {
+                bomCount++;
+                snapshotIds[id] = 0;
+                AmountList parts = boms[id].getParts();
+                for (int i = 0; i < parts.size(); i++) {
+                    snapshotIds[parts.getId(i)] = 0;
+                }
+            }
+        }
+        for (int id = 0; id < size; id++) {
+            if (snapshotIds[id] != SymbolTable.NO_ID) {
+                snapshotIds[id] = snapshotSize++;
+            }
+        }
+
+        BinaryOutput output = new BinaryOutput();
+
+        output.writeInt(MAGIC_NUMBER);
+        output.writeVarint(FORMAT_VERSION);
+        output.writeVarint(version);
+        output.writeVarint(snapshotSize);
+        for (int id = 0; id < size; id++) {
+            if (snapshotIds[id] != SymbolTable.NO_ID) {
+                output.writeName(names[id]);
+                transferIfFull(output, channel);
+            }
+        }
+
+        output.writeVarint(bomCount);
+        for (int id = 0; id < size; id++) {
+            if (boms[id] != null) {
+                AmountList parts = boms[id].getParts();
+                output.writeVarint(snapshotIds[id]);
+                output.writeVarint(parts.size());
+                for (int i = 0; i < parts.size(); i++) {
+                    output.writeVarint(snapshotIds[parts.getId(i)]);
+                    output.writeVarint(parts.getAmount(i));
+                }
+                writtenBOMCount.incrementAndGet();
+                transferIfFull(output, channel);
+            }
+        }
+        output.transferTo(channel);
+    }
+
+    /**
+     * Reads a snapshot. The names are interned into the given empty symbol table in dictionary order,
+     * so the IDs of the symbol table equal the IDs within the snapshot.
+     *
+     * @param file the file to read from
+     * @param symbols the empty symbol table to intern the names into
+     * @return the snapshot
+     * @throws IOException when the file cannot be read
+     * @throws InvalidSnapshotException when the file is no snapshot of a supported version or is truncated
+     */
+    static Snapshot read(Path file, SymbolTable symbols) throws IOException, InvalidSnapshotException {
+        BinaryInput input;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new InvalidSnapshotException(file.toString());
+            }
+            input = new BinaryInput(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+
+        try {
+            if (input.readInt() != MAGIC_NUMBER) {
+                throw new InvalidSnapshotException(file.toString());
+            }
+            int formatVersion = input.readVarint();
+            if (formatVersion < FIRST_FORMAT_VERSION || formatVersion > FORMAT_VERSION) {
+                throw new InvalidSnapshotException(file.toString());
+            }
+            long version = formatVersion > FIRST_FORMAT_VERSION ? input.readVarlong() : 0;
+
+            int size = input.readVarint();
+            for (int id = 0; id < size; id++) {
+                if (symbols.intern(input.readName()) != id) {
+                    throw new InvalidSnapshotException(file.toString());
+                }
+            }
+
+            Assembly[] boms = new Assembly[size];
+            int bomCount = input.readVarint();
+            for (int i = 0; i < bomCount; i++) {
+                int bomId = readId(input, size);
+                int partCount = input.readVarint();
+                if (partCount == 0 || boms[bomId] != null) {
+                    throw new InvalidSnapshotException(file.toString());
+                }
+
+                AmountList parts = new AmountList();
+                for (int j = 0; j < partCount; j++) {
+                    int partId = readId(input, size);
+                    int amount = input.readVarint();
+                    if (amount == 0 || amount > PART_AMOUNT_MAX) {
+                        throw new InvalidSnapshotException(file.toString());
+                    }
+                    parts.put(partId, amount);
+                }
+                boms[bomId] = new Assembly(symbols, bomId, parts);
+            }
+
+            if (input.remaining() > 0) {
+                throw new InvalidSnapshotException(file.toString());
+            }
+            return new Snapshot(boms, version);
+        } catch (BufferUnderflowException | NumberFormatException e) {
+            throw new InvalidSnapshotException(file.toString());
+        }
+    }
+
+    /**
+     * Reads an ID and checks that it belongs to the dictionary.
+     *
+     * @param input the input to read from
+     * @param size the size of the dictionary
+     * @return the ID
+     * @throws NumberFormatException when the ID is out of range
+     */
+    private static int readId(BinaryInput input, int size) {
+        int id = input.readVarint();
+        if (id >= size) {
+            throw new NumberFormatException();
+        }
+        return id;
+    }
+
+    /**
+     * Passes the written bytes to the channel once they fill the buffer size.
+     *
+     * @param output the output
+     * @param channel the channel
+     * @throws IOException when the channel cannot be written
+     */
+    private static void transferIfFull(BinaryOutput output, FileChannel channel) throws IOException {
+        if (output.size() >= BUFFER_SIZE) {
+            output.transferTo(channel);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package edu.kit.informatik.logic;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps the names of all assemblies known to a workbench to dense integer IDs and back.
+ *
+ * The workbench works on IDs only, names are resolved when they enter or leave the workbench.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+final class SymbolTable {
+    /**
+     * The ID returned for names that have never been interned.
+     */
+    static final int NO_ID = -1;
+
+    private final Map<String, Integer> ids;
+    private final List<String> names;
+
+    /**
+     * Instantiates a new empty SymbolTable.
+     */
+    SymbolTable() {
+        ids = new HashMap<>();
+        names = new ArrayList<>();
+    }
+
+    /**
+     * Gets the ID of a name and assigns the next free ID if the name is unknown.
+     *
+     * @param name the name
+     * @return the ID of the name
+     */
+    int intern(String name) {
+        Integer id = ids.get(name);
+        if (id == null) {
+            id = names.size();
+            names.add(name);
+            ids.put(name, id);
+        }
+        return id;
+    }
+
+    /**
+     * Removes all names interned after the table had the given size, so their IDs are assigned again.
+     *
+     * @param size the size to shrink the table to
+     */
+    void truncate(int size) {
+        while (names.size() > size) {
+            ids.remove(names.remove(names.size() - 1));
+        }
+    }
+
+    /**
+     * Gets the ID of a name.
+     *
+     * @param name the name
+     * @return the ID of the name or NO_ID if the name is unknown
+     */
+    int getId(String name) {
+        return ids.getOrDefault(name, NO_ID);
+    }
+
+    /**
+     * Gets the name of an ID.
+     *
+     * @param id the ID
+     * @return the name belonging to the ID
+     */
+    String getName(int id) {
+        return names.get(id);
+    }
+
+    /**
+     * Gets the names of all IDs.
+     *
+     * @return a copy of all names indexed by their ID
+     */
+    String[] getNames() {
+        return names.toArray(new String[0]);
+    }
+
+    /**
+     * Gets the amount of interned names, which is also the lowest unused ID.
+     *
+     * @return the amount of interned names
+     */
+    int size() {
+        return names.size();
+    }
+}
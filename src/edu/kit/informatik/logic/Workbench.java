@@ -2,7 +2,13 @@ package edu.kit.informatik.logic;
 
 import edu.kit.informatik.logic.exceptions.*;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
 
 /**
  * The core logic of the program.
@@ -10,19 +16,121 @@ import java.util.*;
  * Similar to an actual workbench it allows constructing objects out of different parts and other objects
  * as well as altering their structure.
  *
+ * Internally all assemblies are identified by dense integer IDs, names are only resolved at the public methods.
+ *
+ * The workbench may be shared between threads: any number of queries run concurrently, while a mutation
+ * excludes all other calls, so every call sees the product structure either before or after a mutation.
+ * Queries still fill the explosion cache, which only holds immutable part counts, so concurrent queries
+ * at worst calculate the same entry twice.
+ *
  * @author Linus Schilpp
  * @version 1.0
  */
 public class Workbench {
-    private final HashMap<String, Assembly> boms;
-    private final Set<String> components;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int NO_ORDER_INDEX = Integer.MIN_VALUE;
+
+    private SymbolTable symbols;
+    /**
+     * The BOMs indexed by their ID, null for IDs that are no BOM.
+     */
+    private Assembly[] boms;
+    /**
+     * The BOMs that directly contain an assembly and the respective amount, indexed by the ID of the assembly.
+     * Null for assemblies that are not used by any BOM, so an assembly is a component
+     * exactly when it has parents but is not a BOM itself.
+     */
+    private AmountList[] parents;
+    /**
+     * Caches the exploded part counts of each BOM per assembly type ordinal.
+     * An entry is only valid as long as neither the BOM nor any BOM below it has been altered.
+     */
+    private PartCounts[][] partCountsCache;
+    /**
+     * Assigns every BOM and component an index, so that each BOM has a lower index than all of its parts.
+     * A new part respecting this order cannot create a cycle, otherwise only the region between
+     * the indices of the BOM and the part has to be searched and reordered (Pearce-Kelly).
+     */
+    private int[] orderIndices;
+    private int lowestOrderIndex;
+    private int highestOrderIndex;
+    /**
+     * The part counter of each querying thread, as the accumulated counts are only valid during a single query.
+     */
+    private final ThreadLocal<PartCounter> partCounters;
+    /**
+     * Whether explosion queries are answered from a frozen snapshot instead of the live structure.
+     */
+    private boolean frozen;
+    /**
+     * The frozen snapshot, null if it has not been built since the last mutation.
+     */
+    private volatile FrozenGraph frozenGraph;
+    /**
+     * The batch mutations are currently staged in, null if no batch has been started.
+     */
+    private MutationBatch batch;
+    /**
+     * The thread that started the batch, only its mutations are staged in the batch.
+     */
+    private Thread batchOwner;
+    /**
+     * The size of the symbol table when the batch has been started, the names interned by the batch
+     * are removed again if it is not applied.
+     */
+    private int batchSymbolCount;
+    /**
+     * Counts the mutations applied to the workbench, a committed batch counts as a single mutation.
+     */
+    private long version;
+    /**
+     * Counts all changes of the product structure, unlike the version it is never reset by loading a snapshot.
+     */
+    private long revision;
+    /**
+     * The journal all applied mutations are appended to, null if no journal has been opened.
+     */
+    private Journal journal;
+    /**
+     * The last checkpoint that has been started, null if there is none.
+     */
+    private Checkpoint checkpoint;
+    private Thread checkpointThread;
+    private final Lock readLock;
+    private final Lock writeLock;
+    /**
+     * The amount of assemblies and the length of the longest path searched by the current cycle check,
+     * reported to the flight recorder.
+     */
+    private int cycleSearchCount;
+    private int cycleSearchDepth;
 
     /**
      * Instantiates a new Workbench.
      */
     public Workbench() {
-        boms = new HashMap<>();
-        components = new HashSet<>();
+        symbols = new SymbolTable();
+        boms = new Assembly[INITIAL_CAPACITY];
+        parents = new AmountList[INITIAL_CAPACITY];
+        partCountsCache = new PartCounts[INITIAL_CAPACITY][];
+        orderIndices = new int[INITIAL_CAPACITY];
+        Arrays.fill(orderIndices, NO_ORDER_INDEX);
+        lowestOrderIndex = 0;
+        highestOrderIndex = 0;
+        partCounters = ThreadLocal.withInitial(PartCounter::new);
+        frozen = false;
+        frozenGraph = null;
+        batch = null;
+        batchOwner = null;
+        version = 0;
+        revision = 0;
+        journal = null;
+        checkpoint = null;
+        checkpointThread = null;
+
+        ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        readLock = lock.readLock();
+        writeLock = lock.writeLock();
     }
 
     /**
@@ -32,7 +140,13 @@ public class Workbench {
      * @return whether it exists
      */
     public boolean hasBOM(String bomName) {
-        return boms.containsKey(bomName);
+        readLock.lock();
+        try {
+            int bomId = symbols.getId(bomName);
+            return bomId != SymbolTable.NO_ID && isBOM(bomId);
+        } finally {
+            readLock.unlock();
+        }
     }
 
     /**
@@ -42,7 +156,13 @@ public class Workbench {
      * @return whether it exists
      */
     public boolean hasComponent(String componentName) {
-        return components.contains(componentName);
+        readLock.lock();
+        try {
+            int componentId = symbols.getId(componentName);
+            return componentId != SymbolTable.NO_ID && !isBOM(componentId) && isUsed(componentId);
+        } finally {
+            readLock.unlock();
+        }
     }
 
     /**
@@ -53,31 +173,96 @@ public class Workbench {
      * @throws LogicException when no BOM with the given name exists
      */
     public Assembly getBOM(String bomName) throws LogicException {
-        if (!hasBOM(bomName)) {
-            throw new AssemblyNotExistingException(bomName);
+        readLock.lock();
+        try {
+            if (!hasBOM(bomName)) {
+                throw new AssemblyNotExistingException(bomName);
+            }
+            return boms[symbols.getId(bomName)];
+        } finally {
+            readLock.unlock();
         }
-        return boms.get(bomName);
     }
 
     /**
      * Adds a BOM to the workbench.
+     * The BOM is created and added under the same lock, so its IDs always belong to the current symbol table.
      *
-     * @param bom the bom to add
-     * @throws LogicException when a bom with the given name already exists
+     * @param bomName     the name of the BOM
+     * @param partEntries the part entries of the BOM
+     * @throws LogicException when the amount of a part is invalid, a bom with the given name already exists
      *                        or if the bom would create a cycle in the product structure
      */
-    public void addBOM(Assembly bom) throws LogicException {
-        if (hasBOM(bom.getName())) {
-            throw new AssemblyExistsException(bom.getName());
-        }
+    public void addBOM(String bomName, Map<String, Long> partEntries) throws LogicException {
+        writeLock.lock();
+        int symbolCount = symbols.size();
+        try {
+            if (isBatchActive()) {
+                batch.addBOM(bomName, partEntries);
+                return;
+            }
+            Assembly bom = createAssembly(bomName, partEntries);
+            if (hasBOM(bom.getName())) {
+                throw new AssemblyExistsException(bom.getName());
+            }
+
+            CycleCheckEvent event = beginCycleCheck();
+            List<String> cycle = insertBOMIntoOrder(bom);
+            commitCycleCheck(event, bom.getName(), cycle);
+            if (cycle != null) {
+                throw new AssemblyCreatesCycleException(bom, cycle);
+            }
+
+            // parents that used the name as a component now have to explode it as a BOM
+            invalidatePartCounts(bom.getId());
+            boms[bom.getId()] = bom;
+
+            AmountList parts = bom.getParts();
+            for (int i = 0; i < parts.size(); i++) {
+                putParentEntry(parts.getId(i), bom.getId(), parts.getAmount(i));
+            }
+            markAltered();
 
-        List<String> cycle = getFirstCycleOfBOM(bom);
-        if (cycle != null) {
-            throw new AssemblyCreatesCycleException(bom, cycle);
+            if (journal != null) {
+                journal.appendSetBOM(version, symbols, bom);
+            }
+        } catch (LogicException e) {
+            releaseSymbols(symbolCount);
+            throw e;
+        } finally {
+            writeLock.unlock();
         }
+    }
+
+    /**
+     * Adds a BOM to the batch of the calling thread, checking it right away like a single mutation,
+     * so a rejected BOM leaves the rest of the batch intact. Used to import many BOMs at once.
+     *
+     * @param bomName     the name of the BOM
+     * @param partEntries the part entries of the BOM
+     * @throws LogicException when the calling thread has not started a batch, a BOM with the given name
+     *                        already exists, the amount of a part is invalid or the BOM would create a cycle
+     */
+    public void addBOMToBatch(String bomName, Map<String, Long> partEntries) throws LogicException {
+        writeLock.lock();
+        int symbolCount = symbols.size();
+        try {
+            if (batch == null || batchOwner != Thread.currentThread()) {
+                throw new BatchNotActiveException();
+            }
+            int bomId = symbols.getId(bomName);
+            if (bomId != SymbolTable.NO_ID && batch.isBOM(bomId)) {
+                throw new AssemblyExistsException(bomName);
+            }
 
-        boms.put(bom.getName(), bom);
-        updateComponents();
+            Assembly bom = createAssembly(bomName, partEntries);
+            batch.addCheckedBOM(bom, bomId != SymbolTable.NO_ID);
+        } catch (LogicException e) {
+            releaseSymbols(symbolCount);
+            throw e;
+        } finally {
+            writeLock.unlock();
+        }
     }
 
     /**
@@ -87,12 +272,24 @@ public class Workbench {
      * @throws LogicException when no bom for the given name exists
      */
     public void removeBOM(String bomName) throws LogicException {
-        if (!hasBOM(bomName)) {
-            throw new AssemblyNotExistingException(bomName);
-        }
+        writeLock.lock();
+        try {
+            if (isBatchActive()) {
+                batch.removeBOM(bomName);
+                return;
+            }
+            Assembly bom = getBOM(bomName);
 
-        boms.remove(bomName);
-        updateComponents();
+            invalidatePartCounts(bom.getId());
+            removeAssembly(bom);
+            markAltered();
+
+            if (journal != null) {
+                journal.appendRemoveBOM(version, bomName);
+            }
+        } finally {
+            writeLock.unlock();
+        }
     }
 
     /**
@@ -106,15 +303,43 @@ public class Workbench {
      *                        or adding the amount to the BOM fails
      */
     public void addPartAmountToBOM(String bomName, String partName, Long amount) throws LogicException {
-        Assembly bom = getBOM(bomName);
+        writeLock.lock();
+        int symbolCount = symbols.size();
+        try {
+            if (isBatchActive()) {
+                batch.addPartAmountToBOM(bomName, partName, amount);
+                return;
+            }
+            Assembly bom = getWritableBOM(getBOM(bomName));
+            int partId = intern(partName);
 
-        List<String> trace = getFirstCycleOfNewPart(bom, partName);
-        if (trace != null) {
-            throw new PartHasCycleException(bomName, partName, trace);
-        }
+            CycleCheckEvent event = beginCycleCheck();
+            List<String> trace = insertPartIntoOrder(bom.getId(), partId);
+            commitCycleCheck(event, bomName, trace);
+            if (trace != null) {
+                releaseOrderIndex(partId);
+                throw new PartHasCycleException(bomName, partName, trace);
+            }
+
+            try {
+                bom.addPartAmount(partId, amount);
+            } catch (InvalidPartAmountException e) {
+                releaseOrderIndex(partId);
+                throw e;
+            }
+            invalidatePartCounts(bom.getId());
+            putParentEntry(partId, bom.getId(), (int) bom.getPartAmount(partId));
+            markAltered();
 
-        bom.addPartAmount(partName, amount);
-        updateComponents();
+            if (journal != null) {
+                journal.appendPartChange(version, true, bomName, partName, amount);
+            }
+        } catch (LogicException e) {
+            releaseSymbols(symbolCount);
+            throw e;
+        } finally {
+            writeLock.unlock();
+        }
     }
 
     /**
@@ -127,62 +352,925 @@ public class Workbench {
      *                        or removing the amount from the BOM fails
      */
     public void removePartAmountFromBOM(String bomName, String partName, Long amount) throws LogicException {
-        Assembly assembly = getBOM(bomName);
-        assembly.removePartAmount(partName, amount);
+        writeLock.lock();
+        try {
+            if (isBatchActive()) {
+                batch.removePartAmountFromBOM(bomName, partName, amount);
+                return;
+            }
+            Assembly assembly = getWritableBOM(getBOM(bomName));
+            int partId = symbols.getId(partName);
+            if (partId == SymbolTable.NO_ID) {
+                throw new PartNotExistingException(bomName, partName);
+            }
+
+            assembly.removePartAmount(partId, amount);
+            invalidatePartCounts(assembly.getId());
+
+            long newAmount = assembly.getPartAmount(partId);
+            if (newAmount > 0) {
+                putParentEntry(partId, assembly.getId(), (int) newAmount);
+            } else {
+                removeParentEntry(partId, assembly.getId());
+            }
+            // remove the assembly from the boms when it is empty and therefore a component
+            if (assembly.getParts().isEmpty()) {
+                removeAssembly(assembly);
+            }
+            markAltered();
+
+            if (journal != null) {
+                journal.appendPartChange(version, false, bomName, partName, amount);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Rejects a mutation whose parameters have been found invalid before it reached the workbench.
+     * Within a batch of the calling thread the error is staged like the error of any other mutation,
+     * so the batch cannot be committed, otherwise it is thrown right away.
+     *
+     * @param error the error of the mutation
+     * @throws LogicException the given error when the calling thread has not started a batch,
+     *                        or when another thread has started a batch
+     */
+    public void rejectMutation(LogicException error) throws LogicException {
+        writeLock.lock();
+        try {
+            if (!isBatchActive()) {
+                throw error;
+            }
+            batch.reject(error);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Starts a batch. Until the batch is committed or aborted all mutations are only staged:
+     * they are validated against the staged state but queries still see the committed product structure,
+     * and their errors are only reported when the batch is committed.
+     * The batch belongs to the calling thread, mutations of other threads are rejected until it ends.
+     *
+     * @throws LogicException when a batch has already been started
+     */
+    public void beginBatch() throws LogicException {
+        writeLock.lock();
+        try {
+            if (batch != null) {
+                throw new BatchActiveException();
+            }
+            batch = new MutationBatch(this, symbols);
+            batchOwner = Thread.currentThread();
+            batchSymbolCount = symbols.size();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Applies all mutations staged in the current batch at once.
+     * The product structure is checked for cycles once and the indices are updated once for all touched BOMs.
+     * If any mutation failed or the staged structure contains a cycle, no mutation is applied at all.
+     *
+     * @throws LogicException when the calling thread has not started a batch
+     *                        or the first error of the staged mutations
+     */
+    public void commitBatch() throws LogicException {
+        writeLock.lock();
+        try {
+            if (batch == null || batchOwner != Thread.currentThread()) {
+                throw new BatchNotActiveException();
+            }
+
+            MutationBatch committedBatch = batch;
+            batch = null;
+            try {
+                if (committedBatch.getFirstError() != null) {
+                    throw committedBatch.getFirstError();
+                }
+                committedBatch.checkCycles();
+            } catch (LogicException e) {
+                releaseSymbols(batchSymbolCount);
+                throw e;
+            }
+
+            Map<Integer, Assembly> stagedBoms = committedBatch.getStagedBOMs();
+            if (!stagedBoms.isEmpty()) {
+                applyStagedBOMs(stagedBoms);
+                if (journal != null) {
+                    journal.appendBatch(version, symbols, stagedBoms);
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Discards all mutations staged in the current batch.
+     *
+     * @throws LogicException when the calling thread has not started a batch
+     */
+    public void abortBatch() throws LogicException {
+        writeLock.lock();
+        try {
+            if (batch == null || batchOwner != Thread.currentThread()) {
+                throw new BatchNotActiveException();
+            }
+            batch = null;
+            releaseSymbols(batchSymbolCount);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Determines whether the calling thread has started the current batch.
+     *
+     * @return whether a batch of the calling thread is active
+     */
+    public boolean ownsBatch() {
+        readLock.lock();
+        try {
+            return batch != null && batchOwner == Thread.currentThread();
+        } finally {
+            readLock.unlock();
+        }
+    }
 
-        // remove the assembly from the boms when it is empty and therefore a component
-        if (assembly.getPartNames().size() == 0) {
-            boms.remove(assembly.getName());
+    /**
+     * Writes all BOMs to a binary snapshot file.
+     * Staged mutations of a started batch are not written.
+     *
+     * @param file the file to write to
+     * @throws IOException when the file cannot be written
+     */
+    public void saveSnapshot(Path file) throws IOException {
+        readLock.lock();
+        try {
+            Snapshot.write(file, symbols.getNames(), boms, version, new AtomicInteger());
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Replaces all BOMs and components by the ones of a binary snapshot file.
+     * The snapshot is known to be acyclic, so the indices are built once without any cycle checks.
+     *
+     * @param file the file to read from
+     * @throws IOException when the file cannot be read
+     * @throws LogicException when a batch has been started, a journal has been opened
+     *                        or the file is no valid snapshot
+     */
+    public void loadSnapshot(Path file) throws IOException, LogicException {
+        writeLock.lock();
+        try {
+            if (batch != null) {
+                throw new BatchActiveException();
+            } else if (journal != null) {
+                throw new JournalActiveException();
+            }
+
+            SymbolTable loadedSymbols = new SymbolTable();
+            Snapshot snapshot = Snapshot.read(file, loadedSymbols);
+            Assembly[] loadedBoms = snapshot.getBOMs();
+            int capacity = Math.max(loadedBoms.length, INITIAL_CAPACITY);
+
+            symbols = loadedSymbols;
+            boms = Arrays.copyOf(loadedBoms, capacity);
+            parents = new AmountList[capacity];
+            partCountsCache = new PartCounts[capacity][];
+            orderIndices = new int[capacity];
+
+            for (int bomId = 0; bomId < loadedBoms.length; bomId++) {
+                if (isBOM(bomId)) {
+                    AmountList parts = boms[bomId].getParts();
+                    for (int i = 0; i < parts.size(); i++) {
+                        putParentEntry(parts.getId(i), bomId, parts.getAmount(i));
+                    }
+                }
+            }
+            rebuildTopologicalOrder();
+            markAltered();
+            version = snapshot.getVersion();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Replays a journal on top of the current product structure and appends all further mutations to it.
+     * The replayed mutations are applied at once like a batch, but without any cycle checks.
+     *
+     * @param file the journal file, created if it does not exist
+     * @param syncCount the amount of records that are forced to disk at once
+     * @param syncMillis the time in milliseconds after which pending records are forced to disk, 0 for no limit
+     * @param failureHandler called once the journal cannot be written anymore, at which point mutations
+     *                       since the last sync have been applied but are lost, so the handler should stop the program
+     * @throws IOException when the file cannot be read or written
+     * @throws LogicException when a batch has been started, a journal has already been opened
+     *                        or the file is no valid journal for the current product structure
+     */
+    public void openJournal(Path file, int syncCount, long syncMillis, Consumer<IOException> failureHandler)
+            throws IOException, LogicException {
+        writeLock.lock();
+        try {
+            if (batch != null) {
+                throw new BatchActiveException();
+            } else if (journal != null) {
+                throw new JournalActiveException();
+            }
+
+            Journal openedJournal = new Journal(file, syncCount, syncMillis);
+            int symbolCount = symbols.size();
+            try {
+                MutationBatch replayedBatch = new MutationBatch(this, symbols);
+                long replayedVersion = openedJournal.replay(replayedBatch, version);
+
+                applyStagedBOMs(replayedBatch.getStagedBOMs());
+                version = replayedVersion;
+            } catch (IOException | LogicException e) {
+                releaseSymbols(symbolCount);
+                openedJournal.close();
+                throw e;
+            }
+            openedJournal.startAppending(failureHandler);
+            journal = openedJournal;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Starts writing a snapshot in the background, while further mutations can be applied.
+     * Once the snapshot has been written, all journal records contained in it are removed.
+     *
+     * @param file the file to write to
+     * @throws IOException when the journal cannot be written
+     * @throws LogicException when the last checkpoint is still running
+     */
+    public void startCheckpoint(Path file) throws IOException, LogicException {
+        writeLock.lock();
+        try {
+            if (checkpoint != null && checkpoint.isRunning()) {
+                throw new CheckpointRunningException();
+            }
+
+            long journalOffset = journal != null ? journal.markCheckpoint() : 0;
+            String[] names = symbols.getNames();
+            checkpoint = new Checkpoint(file, names, Arrays.copyOf(boms, names.length), version, journal, journalOffset);
+            checkpointThread = new Thread(checkpoint, "checkpoint");
+            checkpointThread.setDaemon(true);
+            checkpointThread.start();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Gets the progress of the last checkpoint.
+     *
+     * @return the status of the checkpoint
+     */
+    public CheckpointStatus getCheckpointStatus() {
+        readLock.lock();
+        try {
+            if (checkpoint == null) {
+                return new CheckpointStatus(CheckpointState.NONE, 0, 0, 0, 0, null);
+            }
+            return checkpoint.getStatus();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Waits for a running checkpoint, then forces all pending records of the journal to disk and closes it.
+     *
+     * @throws IOException when the journal cannot be written
+     */
+    public void close() throws IOException {
+        writeLock.lock();
+        try {
+            if (checkpointThread != null) {
+                try {
+                    checkpointThread.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (journal != null) {
+                Journal closedJournal = journal;
+                journal = null;
+                closedJournal.close();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Lets explosion queries run on a frozen snapshot of the product structure.
+     * The snapshot is compiled immediately and rebuilt by the first query after each mutation.
+     */
+    public void freeze() {
+        writeLock.lock();
+        try {
+            frozen = true;
+            getFrozenGraph();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Lets explosion queries run on the live product structure again and discards the frozen snapshot.
+     */
+    public void unfreeze() {
+        writeLock.lock();
+        try {
+            frozen = false;
+            frozenGraph = null;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Gets the state of the product structure explosion queries are answered from.
+     *
+     * @return the graph state
+     */
+    public GraphState getGraphState() {
+        readLock.lock();
+        try {
+            if (!frozen) {
+                return GraphState.LIVE;
+            }
+            return frozenGraph != null ? GraphState.FROZEN : GraphState.STALE;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Gets the revision of the product structure, which changes with every change of the product structure
+     * and never decreases, so equal revisions of a workbench mean equal query results.
+     *
+     * @return the revision
+     */
+    public long getRevision() {
+        readLock.lock();
+        try {
+            return revision;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Gets the name of all direct parts of a BOM and their respective amount.
+     *
+     * @param bomName the name of the BOM
+     * @return a list of part entries
+     * @throws LogicException when no BOM with the given name exists
+     */
+    public List<Map.Entry<String, Long>> getPartEntriesOf(String bomName) throws LogicException {
+        readLock.lock();
+        try {
+            return getBOM(bomName).getPartEntries();
+        } finally {
+            readLock.unlock();
         }
-        updateComponents();
     }
 
     /**
      * Gets the counts of all parts with the given assembly type.
+     * In the live state the exploded counts are cached until the BOM or one of its sub-BOMs is altered,
+     * in the frozen state they are calculated in a single pass over the frozen snapshot.
      *
-     * @param bom the BOM to get counts of
+     * @param bomName the name of the BOM to get counts of
      * @param assemblyType the type of the assembly
      * @return a map of key value pair of part names and their respective amount
+     * @throws LogicException when no BOM with the given name exists
+     */
+    public Map<String, Long> getPartCountsOf(String bomName, AssemblyType assemblyType) throws LogicException {
+        readLock.lock();
+        try {
+            return toNameMap(explode(bomName, assemblyType, null));
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Runs the same query as getPartCountsOf, counting how it traverses the product structure.
+     *
+     * @param bomName the name of the BOM to get counts of
+     * @param assemblyType the type of the assembly
+     * @return the cost of the query
+     * @throws LogicException when no BOM with the given name exists
+     */
+    public QueryCost explainPartCountsOf(String bomName, AssemblyType assemblyType) throws LogicException {
+        readLock.lock();
+        try {
+            ExplosionProbe probe = new ExplosionProbe();
+            Map<String, Long> counts = toNameMap(explode(bomName, assemblyType, probe));
+            probe.countMap();
+            return probe.toQueryCost(frozen, counts.size());
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Gets the counts of all parts required to build the given BOMs in the demanded amounts,
+     * the same as adding up the part counts of every BOM multiplied by its demand.
+     *
+     * In the frozen state the requirements are calculated in a single pass over the snapshot in the order
+     * of the low-level codes, so every assembly is visited once, no matter how many of the BOMs share it.
+     * In the live state the cached part counts of every BOM are scaled by its demand instead,
+     * so a plan after an alteration only recalculates the BOMs above the altered one.
+     *
+     * @param demands the demanded amount of each BOM by its name, all positive
+     * @return the part counts of each assembly type
+     * @throws LogicException when no BOM with one of the names exists or a requirement does not fit into a long
+     */
+    public Map<AssemblyType, Map<String, Long>> getPlannedPartCountsOf(Map<String, Long> demands)
+            throws LogicException {
+        readLock.lock();
+        try {
+            String[] bomNames = new String[demands.size()];
+            int[] bomIds = new int[demands.size()];
+            long[] bomDemands = new long[demands.size()];
+            int bomCount = 0;
+            for (Map.Entry<String, Long> demand : demands.entrySet()) {
+                bomNames[bomCount] = demand.getKey();
+                bomIds[bomCount] = getBOM(demand.getKey()).getId();
+                bomDemands[bomCount] = demand.getValue();
+                bomCount++;
+            }
+
+            PartCounter partCounter = partCounters.get();
+            partCounter.startQuery(null);
+            PartCounts[] countsByType;
+            try {
+                countsByType = plan(bomIds, bomDemands, partCounter);
+            } catch (ArithmeticException e) {
+                partCounter.reset();
+                int excessiveIndex = findExcessiveDemand(bomIds, bomDemands, partCounter);
+                throw new InvalidDemandException(bomNames[excessiveIndex], Long.toString(bomDemands[excessiveIndex]));
+            }
+
+            Map<AssemblyType, Map<String, Long>> plannedCounts = new EnumMap<>(AssemblyType.class);
+            for (AssemblyType assemblyType : AssemblyType.values()) {
+                plannedCounts.put(assemblyType, toNameMap(countsByType[assemblyType.ordinal()]));
+            }
+            return plannedCounts;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Gets all BOMs that directly or indirectly use the given part
+     * and the amount of the part each of them needs in total.
+     *
+     * Only the BOMs above the part are visited, the rest of the product structure is never touched.
+     *
+     * @param partName the name of the part
+     * @return a map of key value pairs of BOM names and the respective amount of the part
+     * @throws LogicException when neither a BOM nor a component with the given name exists
+     */
+    public Map<String, Long> getUsagesOf(String partName) throws LogicException {
+        readLock.lock();
+        try {
+            if (!hasBOM(partName) && !hasComponent(partName)) {
+                throw new PartUnknownException(partName);
+            }
+            int partId = symbols.getId(partName);
+            PartCounter partCounter = partCounters.get();
+
+            // order the BOMs above the part so that every BOM comes after all of its used sub-parts
+            List<Integer> ancestors = new ArrayList<>();
+            collectAncestors(partId, new BitSet(), ancestors);
+            Collections.reverse(ancestors);
+
+            for (int assemblyId : ancestors) {
+                long amountInAssembly = assemblyId == partId ? 1 : partCounter.get(assemblyId);
+                AmountList assemblyParents = parents[assemblyId];
+
+                for (int i = 0; assemblyParents != null && i < assemblyParents.size(); i++) {
+                    partCounter.add(assemblyParents.getId(i), amountInAssembly * assemblyParents.getAmount(i));
+                }
+            }
+            return toNameMap(partCounter.toPartCounts());
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Gets the BOM with the given ID.
+     *
+     * @param bomId the ID of the BOM
+     * @return the BOM or null if the ID is no BOM
+     */
+    Assembly getBOMById(int bomId) {
+        return boms[bomId];
+    }
+
+    /**
+     * Determines whether the mutations of the calling thread have to be staged in a batch.
+     *
+     * @return whether the calling thread has started a batch
+     * @throws BatchActiveException when another thread has started a batch
+     */
+    private boolean isBatchActive() throws BatchActiveException {
+        if (batch != null && batchOwner != Thread.currentThread()) {
+            throw new BatchActiveException();
+        }
+        return batch != null;
+    }
+
+    /**
+     * Gets a BOM that may be altered in place, which is a copy if a running checkpoint still has to write the BOM.
+     *
+     * @param bom the BOM
+     * @return the BOM that may be altered
+     */
+    private Assembly getWritableBOM(Assembly bom) {
+        if (checkpoint != null && checkpoint.isShared(bom)) {
+            Assembly copy = new Assembly(bom);
+            boms[copy.getId()] = copy;
+            return copy;
+        }
+        return bom;
+    }
+
+    /**
+     * Replaces the touched BOMs by their staged state, which has already been validated and checked for cycles.
+     *
+     * @param stagedBoms a map of BOM IDs and the respective new BOM, null for BOMs that have been removed
+     */
+    private void applyStagedBOMs(Map<Integer, Assembly> stagedBoms) {
+        // every BOM whose exploded counts change either is touched or lies above a touched BOM
+        for (int bomId : stagedBoms.keySet()) {
+            invalidatePartCounts(bomId);
+        }
+
+        boolean orderIntact = true;
+        for (Map.Entry<Integer, Assembly> stagedBom : stagedBoms.entrySet()) {
+            int bomId = stagedBom.getKey();
+            Assembly oldBom = boms[bomId];
+            Assembly newBom = stagedBom.getValue();
+
+            if (oldBom != null) {
+                AmountList oldParts = oldBom.getParts();
+                for (int i = oldParts.size() - 1; i >= 0; i--) {
+                    if (newBom == null || newBom.getPartAmount(oldParts.getId(i)) == 0) {
+                        removeParentEntry(oldParts.getId(i), bomId);
+                    }
+                }
+            }
+
+            boms[bomId] = newBom;
+            if (newBom == null) {
+                releaseOrderIndex(bomId);
+                continue;
+            }
+
+            AmountList newParts = newBom.getParts();
+            for (int i = 0; i < newParts.size(); i++) {
+                putParentEntry(newParts.getId(i), bomId, newParts.getAmount(i));
+                orderIntact &= getOrderIndex(bomId, true) < getOrderIndex(newParts.getId(i), false);
+            }
+        }
+
+        if (!orderIntact) {
+            rebuildTopologicalOrder();
+        }
+        markAltered();
+    }
+
+    /**
+     * Assigns new order indices to all BOMs and components in topological order (Kahn).
+     */
+    private void rebuildTopologicalOrder() {
+        int size = symbols.size();
+        int[] parentCounts = new int[size];
+        int[] queue = new int[size];
+        int queueEnd = 0;
+
+        for (int id = 0; id < size; id++) {
+            parentCounts[id] = isUsed(id) ? parents[id].size() : 0;
+            if (parentCounts[id] == 0 && isBOM(id)) {
+                queue[queueEnd++] = id;
+            }
+        }
+
+        Arrays.fill(orderIndices, NO_ORDER_INDEX);
+        lowestOrderIndex = 0;
+        highestOrderIndex = -1;
+
+        for (int queueStart = 0; queueStart < queueEnd; queueStart++) {
+            int id = queue[queueStart];
+            orderIndices[id] = ++highestOrderIndex;
+
+            if (isBOM(id)) {
+                AmountList parts = boms[id].getParts();
+                for (int i = 0; i < parts.size(); i++) {
+                    if (--parentCounts[parts.getId(i)] == 0) {
+                        queue[queueEnd++] = parts.getId(i);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Calculates the counts of all parts required to build the given BOMs in the demanded amounts.
+     *
+     * @param bomIds the IDs of the BOMs, all distinct
+     * @param demands the demanded amount of each BOM, all positive
+     * @param partCounter the part counter of the querying thread
+     * @return the part counts indexed by the ordinal of their assembly type
+     * @throws ArithmeticException when a requirement does not fit into a long, the counter has to be reset then
+     */
+    private PartCounts[] plan(int[] bomIds, long[] demands, PartCounter partCounter) {
+        if (frozen) {
+            return getFrozenGraph().plan(bomIds, demands, partCounter);
+        }
+
+        PartCounts[] countsByType = new PartCounts[AssemblyType.values().length];
+        for (AssemblyType assemblyType : AssemblyType.values()) {
+            // look up all counts first, since the part counter can only accumulate one result at a time
+            PartCounts[] bomCounts = new PartCounts[bomIds.length];
+            for (int i = 0; i < bomIds.length; i++) {
+                bomCounts[i] = getCachedPartCountsOf(boms[bomIds[i]], assemblyType, partCounter);
+            }
+
+            for (int i = 0; i < bomIds.length; i++) {
+                for (int j = 0; j < bomCounts[i].size(); j++) {
+                    partCounter.addExact(bomCounts[i].getId(j), bomCounts[i].getCount(j), demands[i]);
+                }
+            }
+            countsByType[assemblyType.ordinal()] = partCounter.toPartCounts();
+        }
+        return countsByType;
+    }
+
+    /**
+     * Finds the demand whose requirements no longer fit into a long once they are added to those of
+     * the demands before it. Only called after a plan has failed, so every prefix of the demands is planned anew.
+     *
+     * @param bomIds the IDs of the BOMs, all distinct
+     * @param demands the demanded amount of each BOM, all positive
+     * @param partCounter the part counter of the querying thread, reset
+     * @return the index of the excessive demand
+     */
+    private int findExcessiveDemand(int[] bomIds, long[] demands, PartCounter partCounter) {
+        for (int count = 1; count < bomIds.length; count++) {
+            try {
+                plan(Arrays.copyOf(bomIds, count), Arrays.copyOf(demands, count), partCounter);
+            } catch (ArithmeticException e) {
+                partCounter.reset();
+                return count - 1;
+            }
+        }
+        return bomIds.length - 1;
+    }
+
+    /**
+     * Gets the frozen snapshot, compiling it if it is outdated.
+     * Synchronized, since concurrent queries may find the snapshot outdated at the same time.
+     *
+     * @return the frozen snapshot
+     */
+    private synchronized FrozenGraph getFrozenGraph() {
+        if (frozenGraph == null) {
+            frozenGraph = new FrozenGraph(boms, symbols.size());
+        }
+        return frozenGraph;
+    }
+
+    /**
+     * Records that the product structure has been altered.
      */
-    public HashMap<String, Long> getPartCountsOf(Assembly bom, AssemblyType assemblyType) {
-        HashMap<String, Long> counts = new HashMap<>();
+    private void markAltered() {
+        frozenGraph = null;
+        version++;
+        revision++;
+    }
 
-        for (Map.Entry<String, Long> partEntry : bom.getPartEntries()) {
-            String partName = partEntry.getKey();
-            Long partAmount = partEntry.getValue();
-            boolean partIsBom = hasBOM(partName);
+    /**
+     * Collects an assembly and all BOMs above it in post order, so every BOM precedes the parts it uses.
+     *
+     * @param assemblyId the ID of the assembly to start from
+     * @param visited the IDs of all assemblies that have already been collected
+     * @param ancestors the list the assemblies are collected in
+     */
+    private void collectAncestors(int assemblyId, BitSet visited, List<Integer> ancestors) {
+        if (!visited.get(assemblyId)) {
+            visited.set(assemblyId);
+            AmountList assemblyParents = parents[assemblyId];
+
+            for (int i = 0; assemblyParents != null && i < assemblyParents.size(); i++) {
+                collectAncestors(assemblyParents.getId(i), visited, ancestors);
+            }
+            ancestors.add(assemblyId);
+        }
+    }
+
+    /**
+     * Explodes a BOM into the counts of all parts with the given assembly type
+     * and reports the explosion to the flight recorder if a recording has enabled the event.
+     *
+     * @param bomName the name of the BOM to get counts of
+     * @param assemblyType the type of the assembly
+     * @param probe the probe counting the traversal, null if the query is not explained
+     * @return the part counts
+     * @throws LogicException when no BOM with the given name exists
+     */
+    private PartCounts explode(String bomName, AssemblyType assemblyType, ExplosionProbe probe)
+            throws LogicException {
+        ExplosionEvent event = new ExplosionEvent();
+        event.begin();
+        Assembly bom = getBOM(bomName);
+        PartCounter partCounter = partCounters.get();
+        partCounter.startQuery(probe);
+
+        PartCounts counts = frozen
+                ? getFrozenGraph().explode(bom.getId(), assemblyType, partCounter)
+                : getCachedPartCountsOf(bom, assemblyType, partCounter);
+        if (event.shouldCommit()) {
+            event.rootAssembly = bomName;
+            event.assemblyType = assemblyType.name();
+            event.frozen = frozen;
+            event.nodesVisited = partCounter.getVisitCount();
+            event.resultSize = counts.size();
+            event.commit();
+        }
+        return counts;
+    }
+
+    /**
+     * Gets the cached counts of all parts with the given assembly type, calculating them if necessary.
+     *
+     * @param bom the BOM to get counts of
+     * @param assemblyType the type of the assembly
+     * @param partCounter the part counter of the querying thread
+     * @return the part counts
+     */
+    private PartCounts getCachedPartCountsOf(Assembly bom, AssemblyType assemblyType, PartCounter partCounter) {
+        partCounter.countVisits(1);
+        PartCounts[] cachedCounts = partCountsCache[bom.getId()];
+        if (cachedCounts == null) {
+            cachedCounts = new PartCounts[AssemblyType.values().length];
+            partCountsCache[bom.getId()] = cachedCounts;
+        }
+
+        PartCounts counts = cachedCounts[assemblyType.ordinal()];
+        ExplosionProbe probe = partCounter.getProbe();
+        if (probe != null) {
+            probe.enter(bom.getId(), counts != null);
+        }
+        if (counts == null) {
+            counts = calculatePartCountsOf(bom, assemblyType, partCounter);
+            cachedCounts[assemblyType.ordinal()] = counts;
+            if (probe != null) {
+                probe.countMap();
+            }
+        }
+        if (probe != null) {
+            probe.exit();
+        }
+        return counts;
+    }
+
+    /**
+     * Calculates the counts of all parts with the given assembly type
+     * by combining the (cached) counts of the direct sub-BOMs.
+     *
+     * @param bom the BOM to calculate the counts of
+     * @param assemblyType the type of the assembly
+     * @param partCounter the part counter of the querying thread
+     * @return the part counts
+     */
+    private PartCounts calculatePartCountsOf(Assembly bom, AssemblyType assemblyType, PartCounter partCounter) {
+        AmountList parts = bom.getParts();
+
+        // explode all sub-BOMs first, since the part counter can only accumulate one BOM at a time
+        PartCounts[] subCounts = new PartCounts[parts.size()];
+        for (int i = 0; i < parts.size(); i++) {
+            if (isBOM(parts.getId(i))) {
+                subCounts[i] = getCachedPartCountsOf(boms[parts.getId(i)], assemblyType, partCounter);
+            }
+        }
+
+        for (int i = 0; i < parts.size(); i++) {
+            int partId = parts.getId(i);
+            long partAmount = parts.getAmount(i);
+            boolean partIsBom = subCounts[i] != null;
 
             if (partIsBom) {
-                Assembly part = boms.get(partName);
-                HashMap<String, Long> partCounts = getPartCountsOf(part, assemblyType);
                 // add the counts of the part to the overall amounts
-                for (Map.Entry<String, Long> entry : partCounts.entrySet()) {
-                    String key = entry.getKey();
-                    long newValue = counts.getOrDefault(key, (long) 0) + partAmount * entry.getValue();
-                    counts.put(key, newValue);
+                for (int j = 0; j < subCounts[i].size(); j++) {
+                    partCounter.add(subCounts[i].getId(j), partAmount * subCounts[i].getCount(j));
                 }
             }
             if (   (assemblyType == AssemblyType.BOM       &&  partIsBom)
                 || (assemblyType == AssemblyType.COMPONENT && !partIsBom)) {
 
-                counts.merge(partName, partAmount, Long::sum);
+                partCounter.add(partId, partAmount);
             }
         }
-        return counts;
+        return partCounter.toPartCounts();
     }
 
+    /**
+     * Removes the cached part counts of an assembly and of all BOMs that contain it directly or indirectly.
+     *
+     * @param assemblyId the ID of the altered assembly
+     */
+    private void invalidatePartCounts(int assemblyId) {
+        partCountsCache[assemblyId] = null;
+        AmountList assemblyParents = parents[assemblyId];
+
+        for (int i = 0; assemblyParents != null && i < assemblyParents.size(); i++) {
+            int parentId = assemblyParents.getId(i);
+            /* a parent is only cached if all of its sub-BOMs are cached,
+               so the ancestors of a parent without cache entry cannot be cached either */
+            if (partCountsCache[parentId] != null) {
+                invalidatePartCounts(parentId);
+            }
+        }
+    }
 
     /**
-     * Gets the first cycle that the given BOM creates in the product structure
+     * Resolves the names of part counts.
      *
-     * @param bom the BOM
-     * @return the first cycle or null if no circle has been found
+     * @param counts the part counts
+     * @return a map of key value pairs of part names and their respective count
+     */
+    private Map<String, Long> toNameMap(PartCounts counts) {
+        Map<String, Long> namedCounts = new HashMap<>();
+        for (int i = 0; i < counts.size(); i++) {
+            namedCounts.put(symbols.getName(counts.getId(i)), counts.getCount(i));
+        }
+        return namedCounts;
+    }
+
+    /**
+     * Starts a cycle check reported to the flight recorder.
+     *
+     * @return the event of the check
+     */
+    private CycleCheckEvent beginCycleCheck() {
+        CycleCheckEvent event = new CycleCheckEvent();
+        event.begin();
+        cycleSearchCount = 0;
+        cycleSearchDepth = 0;
+        return event;
+    }
+
+    /**
+     * Ends a cycle check and reports it to the flight recorder if a recording has enabled the event.
+     *
+     * @param event the event of the check
+     * @param bomName the name of the BOM the check has been made for
+     * @param trace the trace of the cycle that has been found, null if there is none
      */
-    private List<String> getFirstCycleOfBOM(Assembly bom) {
-        // try to find a cycle in the parts of the bom
-        for (String partName : bom.getPartNames()) {
-            List<String> trace = getFirstCycleOfNewPart(bom, partName);
+    private void commitCycleCheck(CycleCheckEvent event, String bomName, List<String> trace) {
+        if (event.shouldCommit()) {
+            event.bom = bomName;
+            event.assembliesSearched = cycleSearchCount;
+            event.depthExplored = cycleSearchDepth;
+            event.traceLength = trace == null ? 0 : trace.size();
+            event.commit();
+        }
+    }
+
+    /**
+     * Inserts all parts of a new BOM into the topological order.
+     *
+     * @param bom the new BOM
+     * @return the trace of the first cycle the BOM would create or null if it does not create a cycle
+     */
+    private List<String> insertBOMIntoOrder(Assembly bom) {
+        AmountList parts = bom.getParts();
+
+        for (int i = 0; i < parts.size(); i++) {
+            List<String> trace = insertPartIntoOrder(bom.getId(), parts.getId(i));
             if (trace != null) {
+                releaseOrderIndex(bom.getId());
+                for (int j = 0; j < parts.size(); j++) {
+                    releaseOrderIndex(parts.getId(j));
+                }
                 return trace;
             }
         }
@@ -190,60 +1278,278 @@ public class Workbench {
     }
 
     /**
-     * Gets the first cycle that adding a part to a BOM would create in the product structure
+     * Reorders the topological order so that the BOM precedes the part, unless adding the part creates a cycle.
      *
-     * @param bom the BOM the part gets added to
-     * @param partName the name of the part to add
-     * @return the first cycle or null if no circle has been found
+     * @param bomId the ID of the BOM the part gets added to
+     * @param partId the ID of the part to add
+     * @return the trace of the cycle starting and ending with the part or null if no cycle has been found
      */
-    private List<String> getFirstCycleOfNewPart(Assembly bom, String partName) {
-        List<String> trace = getFirstCycleTrace(partName, new ArrayList<>(Arrays.asList(bom.getName())));
-        if (trace != null) {
-            // shift the path by one to make it start by the bom that is the root of the cycle
-            trace.remove(0);
-            trace.add(trace.get(0));
-            return trace;
+    private List<String> insertPartIntoOrder(int bomId, int partId) {
+        int upperBound = getOrderIndex(bomId, true);
+        int lowerBound = getOrderIndex(partId, false);
+        if (upperBound < lowerBound) {
+            return null;
         }
+
+        // the part can only reach the BOM through assemblies that lie between them in the current order
+        BitSet descendants = new BitSet();
+        List<Integer> trace = new ArrayList<>();
+        if (collectAffectedDescendants(partId, bomId, upperBound, descendants, trace)) {
+            trace.add(partId);
+
+            List<String> namedTrace = new ArrayList<>(trace.size());
+            for (int assemblyId : trace) {
+                namedTrace.add(symbols.getName(assemblyId));
+            }
+            return namedTrace;
+        }
+
+        BitSet ancestors = new BitSet();
+        collectAffectedAncestors(bomId, lowerBound, ancestors);
+        reorder(ancestors, descendants);
         return null;
     }
 
     /**
-     * Gets the trace of the first cycle that is being found by traversing all assemblies down to their components
+     * Searches the descendants of an assembly whose order index does not exceed the upper bound
+     * in the order of the parts, so the first cycle is the same a full depth-first search would find.
      *
-     * @param assemblyName the name of the assembly to traverse from
-     * @param trace the trace from to first assembly to the current assembly
-     * @return the trace of the first cycle represented by a list of assembly names
+     * @param assemblyId the ID of the assembly to search from
+     * @param targetId the ID of the assembly whose occurrence closes a cycle
+     * @param upperBound the highest order index to search
+     * @param visited the assemblies that have already been searched
+     * @param trace the trace from the first assembly to the current assembly
+     * @return whether the target has been reached
      */
-    private List<String> getFirstCycleTrace(String assemblyName, List<String> trace) {
-        if (trace.contains(assemblyName)) {
-            trace.add(assemblyName);
-            return trace;
-        } else if (hasBOM(assemblyName)) {
-            trace.add(assemblyName);
-            Assembly bom = boms.get(assemblyName);
+    private boolean collectAffectedDescendants(int assemblyId, int targetId, int upperBound,
+                                               BitSet visited, List<Integer> trace) {
+        visited.set(assemblyId);
+        trace.add(assemblyId);
+        cycleSearchCount++;
+        cycleSearchDepth = Math.max(cycleSearchDepth, trace.size());
+        if (assemblyId == targetId) {
+            return true;
+        }
 
-            for (String partName : bom.getPartNames()) {
-                List<String> partTrace = getFirstCycleTrace(partName, new ArrayList<>(trace));
-                if (partTrace != null) {
-                    return partTrace;
+        if (isBOM(assemblyId)) {
+            AmountList parts = boms[assemblyId].getParts();
+            for (int i = 0; i < parts.size(); i++) {
+                int partId = parts.getId(i);
+                if (!visited.get(partId) && orderIndices[partId] <= upperBound
+                        && collectAffectedDescendants(partId, targetId, upperBound, visited, trace)) {
+                    return true;
                 }
             }
         }
-        return null;
+        trace.remove(trace.size() - 1);
+        return false;
     }
 
-    /* this recalculation of components is costly but since BOM (Bill of Material) are rarely altered in production
-       the performance gain when determining whether an assembly part is an individual part outweighs this cost
+    /**
+     * Collects the ancestors of an assembly whose order index exceeds the lower bound.
+     *
+     * @param assemblyId the ID of the assembly to search from
+     * @param lowerBound the order index all collected ancestors have to exceed
+     * @param visited the assemblies that have already been collected
      */
-    private void updateComponents() {
-        components.clear();
-        // find out the new components
-        for (Assembly assembly : boms.values()) {
-            for (String partName : assembly.getPartNames()) {
-                if (!hasBOM(partName)) {
-                    components.add(partName);
-                }
+    private void collectAffectedAncestors(int assemblyId, int lowerBound, BitSet visited) {
+        visited.set(assemblyId);
+        AmountList assemblyParents = parents[assemblyId];
+
+        for (int i = 0; assemblyParents != null && i < assemblyParents.size(); i++) {
+            int parentId = assemblyParents.getId(i);
+            if (!visited.get(parentId) && orderIndices[parentId] > lowerBound) {
+                collectAffectedAncestors(parentId, lowerBound, visited);
             }
         }
     }
+
+    /**
+     * Reassigns the order indices of the affected region so that all ancestors precede all descendants
+     * while the relative order within both groups stays the same.
+     *
+     * @param ancestors the affected ancestors of the BOM
+     * @param descendants the affected descendants of the part
+     */
+    private void reorder(BitSet ancestors, BitSet descendants) {
+        Comparator<Integer> byOrderIndex = Comparator.comparingInt(assemblyId -> orderIndices[assemblyId]);
+        List<Integer> affected = toList(ancestors);
+        List<Integer> shifted = toList(descendants);
+        affected.sort(byOrderIndex);
+        shifted.sort(byOrderIndex);
+        affected.addAll(shifted);
+
+        int[] indices = new int[affected.size()];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = orderIndices[affected.get(i)];
+        }
+        Arrays.sort(indices);
+
+        for (int i = 0; i < indices.length; i++) {
+            orderIndices[affected.get(i)] = indices[i];
+        }
+    }
+
+    /**
+     * Gets the order index of an assembly.
+     * Unknown assemblies are placed before all others if they are a BOM and after all others otherwise,
+     * so building the structure top down or bottom up never requires reordering.
+     *
+     * @param assemblyId the ID of the assembly
+     * @param isBOM whether the assembly is used as BOM
+     * @return the order index
+     */
+    private int getOrderIndex(int assemblyId, boolean isBOM) {
+        if (orderIndices[assemblyId] == NO_ORDER_INDEX) {
+            orderIndices[assemblyId] = isBOM ? --lowestOrderIndex : ++highestOrderIndex;
+        }
+        return orderIndices[assemblyId];
+    }
+
+    /**
+     * Removes the order index of an assembly that is neither a BOM nor used by any BOM.
+     *
+     * @param assemblyId the ID of the assembly
+     */
+    private void releaseOrderIndex(int assemblyId) {
+        if (!isBOM(assemblyId) && !isUsed(assemblyId)) {
+            orderIndices[assemblyId] = NO_ORDER_INDEX;
+        }
+    }
+
+    /**
+     * Removes a BOM from the workbench and the parent index.
+     * The BOM becomes a component if it is still used by other BOMs.
+     *
+     * @param bom the BOM to remove
+     */
+    private void removeAssembly(Assembly bom) {
+        boms[bom.getId()] = null;
+
+        AmountList parts = bom.getParts();
+        for (int i = 0; i < parts.size(); i++) {
+            removeParentEntry(parts.getId(i), bom.getId());
+        }
+        releaseOrderIndex(bom.getId());
+    }
+
+    /**
+     * Records that a BOM directly contains the given amount of a part.
+     *
+     * @param partId the ID of the part
+     * @param bomId the ID of the BOM containing the part
+     * @param amount the amount of the part in the BOM
+     */
+    private void putParentEntry(int partId, int bomId, int amount) {
+        if (parents[partId] == null) {
+            parents[partId] = new AmountList();
+        }
+        parents[partId].put(bomId, amount);
+    }
+
+    /**
+     * Records that a BOM no longer contains a part.
+     *
+     * @param partId the ID of the part
+     * @param bomId the ID of the BOM that contained the part
+     */
+    private void removeParentEntry(int partId, int bomId) {
+        parents[partId].remove(bomId);
+        if (parents[partId].isEmpty()) {
+            parents[partId] = null;
+            releaseOrderIndex(partId);
+        }
+    }
+
+    /**
+     * Determines whether the assembly with the given ID is a BOM.
+     *
+     * @param assemblyId the ID of the assembly
+     * @return whether it is a BOM
+     */
+    private boolean isBOM(int assemblyId) {
+        return boms[assemblyId] != null;
+    }
+
+    /**
+     * Determines whether the assembly with the given ID is used by any BOM.
+     *
+     * @param assemblyId the ID of the assembly
+     * @return whether it is used
+     */
+    private boolean isUsed(int assemblyId) {
+        return parents[assemblyId] != null;
+    }
+
+    /**
+     * Creates an assembly with IDs of the current symbol table, the caller has to hold the write lock.
+     *
+     * @param name        the name of the assembly
+     * @param partEntries the part entries of the assembly
+     * @return the assembly
+     * @throws InvalidPartAmountException when the amount of a part is invalid
+     */
+    Assembly createAssembly(String name, Map<String, Long> partEntries) throws InvalidPartAmountException {
+        Assembly assembly = new Assembly(symbols, name, partEntries);
+        ensureCapacity(symbols.size());
+        return assembly;
+    }
+
+    /**
+     * Removes all names interned since the symbol table had the given size, as the mutation interning them
+     * has been rejected. The removed IDs must not be used by any BOM, so rejected mutations never grow the table.
+     *
+     * @param symbolCount the size of the symbol table before the mutation
+     */
+    private void releaseSymbols(int symbolCount) {
+        for (int id = symbolCount; id < symbols.size(); id++) {
+            orderIndices[id] = NO_ORDER_INDEX;
+            partCountsCache[id] = null;
+        }
+        symbols.truncate(symbolCount);
+    }
+
+    /**
+     * Gets the ID of a name, assigning a new one if the name is unknown.
+     *
+     * @param name the name
+     * @return the ID
+     */
+    int intern(String name) {
+        int id = symbols.intern(name);
+        ensureCapacity(symbols.size());
+        return id;
+    }
+
+    /**
+     * Grows all arrays indexed by ID so they can hold the given amount of IDs.
+     *
+     * @param capacity the amount of IDs
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity > boms.length) {
+            int oldCapacity = boms.length;
+            int newCapacity = Math.max(capacity, oldCapacity * 2);
+
+            boms = Arrays.copyOf(boms, newCapacity);
+            parents = Arrays.copyOf(parents, newCapacity);
+            partCountsCache = Arrays.copyOf(partCountsCache, newCapacity);
+            orderIndices = Arrays.copyOf(orderIndices, newCapacity);
+            Arrays.fill(orderIndices, oldCapacity, newCapacity, NO_ORDER_INDEX);
+        }
+    }
+
+    /**
+     * Gets the IDs contained in a set in ascending order.
+     *
+     * @param ids the set of IDs
+     * @return a list of the IDs
+     */
+    private static List<Integer> toList(BitSet ids) {
+        List<Integer> list = new ArrayList<>(ids.cardinality());
+        for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+            list.add(id);
+        }
+        return list;
+    }
 }
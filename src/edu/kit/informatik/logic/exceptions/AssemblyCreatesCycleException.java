@@ -12,6 +12,8 @@ import java.util.List;
  * @version 1.0
  */
 public class AssemblyCreatesCycleException extends LogicException {
+    private final String assemblyName;
+    private final List<String> trace;
 
     /**
      * Instantiates a new AssemblyCreatesCycleException.
@@ -20,8 +22,14 @@ public class AssemblyCreatesCycleException extends LogicException {
      * @param trace    the trace of the cycle created by the assembly
      */
     public AssemblyCreatesCycleException(Assembly assembly, List<String> trace) {
-        super(String.format(ExceptionMessage.ASSEMBLY_CREATES_CYCLE.toString(),
-                            assembly.getName(), String.join("-", trace)));
+        super(ExceptionMessage.ASSEMBLY_CREATES_CYCLE);
+        this.assemblyName = assembly.getName();
+        this.trace = trace;
+    }
+
+    @Override
+    protected String formatMessage() {
+        return ExceptionMessage.ASSEMBLY_CREATES_CYCLE.format(assemblyName, String.join("-", trace));
     }
 
 }
@@ -16,7 +16,7 @@ public class AssemblyExistsException extends LogicException {
      * @param assemblyName the name of the assembly
      */
     public AssemblyExistsException(String assemblyName) {
-        super(String.format(ExceptionMessage.ASSEMBLY_EXISTS.toString(), assemblyName));
+        super(ExceptionMessage.ASSEMBLY_EXISTS, assemblyName);
     }
 
 }
@@ -16,7 +16,7 @@ public class AssemblyNotExistingException extends LogicException {
      * @param assemblyName the name of the assembly
      */
     public AssemblyNotExistingException(String assemblyName) {
-        super(String.format(ExceptionMessage.ASSEMBLY_NOT_EXISTING.toString(), assemblyName));
+        super(ExceptionMessage.ASSEMBLY_NOT_EXISTING, assemblyName);
     }
 
 }
@@ -0,0 +1,20 @@
+package edu.kit.informatik.logic.exceptions;
+
+import edu.kit.informatik.ui.strings.ExceptionMessage;
+
+/**
+ * An exception thrown when a batch is started while another batch is still active.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+public class BatchActiveException extends LogicException {
+
+    /**
+     * Instantiates a new BatchActiveException.
+     */
+    public BatchActiveException() {
+        super(ExceptionMessage.BATCH_ACTIVE);
+    }
+
+}
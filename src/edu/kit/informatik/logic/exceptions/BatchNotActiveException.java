@@ -0,0 +1,20 @@
+package edu.kit.informatik.logic.exceptions;
+
+import edu.kit.informatik.ui.strings.ExceptionMessage;
+
+/**
+ * An exception thrown when a batch is committed or aborted without being started.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+public class BatchNotActiveException extends LogicException {
+
+    /**
+     * Instantiates a new BatchNotActiveException.
+     */
+    public BatchNotActiveException() {
+        super(ExceptionMessage.BATCH_NOT_ACTIVE);
+    }
+
+}
@@ -0,0 +1,20 @@
+package edu.kit.informatik.logic.exceptions;
+
+import edu.kit.informatik.ui.strings.ExceptionMessage;
+
+/**
+ * An exception thrown when a checkpoint is started while the last checkpoint is still running.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+public class CheckpointRunningException extends LogicException {
+
+    /**
+     * Instantiates a new CheckpointRunningException.
+     */
+    public CheckpointRunningException() {
+        super(ExceptionMessage.CHECKPOINT_RUNNING);
+    }
+
+}
@@ -12,6 +12,8 @@ import java.util.Set;
  * @version 1.0
  */
 public class DuplicatePartsException extends LogicException {
+    private final String assemblyName;
+    private final Set<String> partNames;
 
     /**
      * Instantiates a new DuplicatePartsException.
@@ -20,8 +22,14 @@ public class DuplicatePartsException extends LogicException {
      * @param partNames    the names of the parts of the assembly
      */
     public DuplicatePartsException(String assemblyName, Set<String> partNames) {
-        super(String.format(ExceptionMessage.DUPLICATE_PARTS.toString(),
-                            assemblyName, String.join(",", partNames)));
+        super(ExceptionMessage.DUPLICATE_PARTS);
+        this.assemblyName = assemblyName;
+        this.partNames = partNames;
+    }
+
+    @Override
+    protected String formatMessage() {
+        return ExceptionMessage.DUPLICATE_PARTS.format(assemblyName, String.join(",", partNames));
     }
 
 }
@@ -0,0 +1,23 @@
+package edu.kit.informatik.logic.exceptions;
+
+import edu.kit.informatik.ui.strings.ExceptionMessage;
+
+/**
+ * An exception thrown when the demanded amount of a BOM in a plan is invalid.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+public class InvalidDemandException extends LogicException {
+
+    /**
+     * Instantiates a new InvalidDemandException.
+     *
+     * @param bomName   the name of the BOM
+     * @param demandStr the demanded amount as string
+     */
+    public InvalidDemandException(String bomName, String demandStr) {
+        super(ExceptionMessage.INVALID_DEMAND, bomName, demandStr);
+    }
+
+}
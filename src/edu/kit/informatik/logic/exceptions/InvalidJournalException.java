@@ -0,0 +1,23 @@
+package edu.kit.informatik.logic.exceptions;
+
+import edu.kit.informatik.ui.strings.ExceptionMessage;
+
+/**
+ * An exception thrown when a file is no journal, does not continue the loaded product structure
+ * or contains mutations that cannot be applied.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+public class InvalidJournalException extends LogicException {
+
+    /**
+     * Instantiates a new InvalidJournalException.
+     *
+     * @param fileName the name of the file
+     */
+    public InvalidJournalException(String fileName) {
+        super(ExceptionMessage.INVALID_JOURNAL, fileName);
+    }
+
+}
@@ -18,7 +18,7 @@ public class InvalidPartAmountException extends LogicException {
      * @param partAmount the amount of the part
      */
     public InvalidPartAmountException(String bomName, String partName, long partAmount) {
-        super(String.format(ExceptionMessage.INVALID_PART_AMOUNT.toString(), partName, bomName, partAmount));
+        super(ExceptionMessage.INVALID_PART_AMOUNT, partName, bomName, partAmount);
     }
 
     /**
@@ -29,7 +29,7 @@ public class InvalidPartAmountException extends LogicException {
      * @param partAmountStr the amount of the part as string
      */
     public InvalidPartAmountException(String bomName, String partName, String partAmountStr) {
-        super(String.format(ExceptionMessage.INVALID_PART_AMOUNT_STRING.toString(), partName, bomName, partAmountStr));
+        super(ExceptionMessage.INVALID_PART_AMOUNT_STRING, partName, bomName, partAmountStr);
     }
 
 }
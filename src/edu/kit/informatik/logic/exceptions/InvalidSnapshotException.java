@@ -0,0 +1,22 @@
+package edu.kit.informatik.logic.exceptions;
+
+import edu.kit.informatik.ui.strings.ExceptionMessage;
+
+/**
+ * An exception thrown when a file is no snapshot of a supported version or has been truncated.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+public class InvalidSnapshotException extends LogicException {
+
+    /**
+     * Instantiates a new InvalidSnapshotException.
+     *
+     * @param fileName the name of the file
+     */
+    public InvalidSnapshotException(String fileName) {
+        super(ExceptionMessage.INVALID_SNAPSHOT, fileName);
+    }
+
+}
@@ -0,0 +1,21 @@
+package edu.kit.informatik.logic.exceptions;
+
+import edu.kit.informatik.ui.strings.ExceptionMessage;
+
+/**
+ * An exception thrown when the product structure would be replaced or a second journal would be opened
+ * while a journal is being written.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+public class JournalActiveException extends LogicException {
+
+    /**
+     * Instantiates a new JournalActiveException.
+     */
+    public JournalActiveException() {
+        super(ExceptionMessage.JOURNAL_ACTIVE);
+    }
+
+}
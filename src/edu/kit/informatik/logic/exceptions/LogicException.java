@@ -1,12 +1,18 @@
 package edu.kit.informatik.logic.exceptions;
 
+import edu.kit.informatik.ui.strings.ExceptionMessage;
+import edu.kit.informatik.ui.strings.TemplatedException;
+
 /**
  * A general exception when something violates the logic of the program.
  *
+ * Thrown by the workbench for operations that would break the product structure,
+ * such as unknown names, invalid amounts or cycles.
+ *
  * @author Linus Schilpp
  * @version 1.0
  */
-public class LogicException extends Exception {
+public class LogicException extends TemplatedException {
 
     /**
      * Instantiates a new LogicException.
@@ -16,4 +22,14 @@ public class LogicException extends Exception {
     public LogicException(String message) {
         super(message);
     }
+
+    /**
+     * Instantiates a new LogicException whose message is formatted from a template once it is requested.
+     *
+     * @param template the template of the message
+     * @param arguments the arguments of the template
+     */
+    protected LogicException(ExceptionMessage template, Object... arguments) {
+        super(template, arguments);
+    }
 }
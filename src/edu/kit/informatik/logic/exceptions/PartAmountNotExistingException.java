@@ -17,7 +17,7 @@ public class PartAmountNotExistingException extends LogicException {
      * @param amount   the amount of the part
      */
     public PartAmountNotExistingException(String partName, long amount) {
-        super(String.format(ExceptionMessage.PART_AMOUNT_NOT_EXISTING.toString(), partName, amount));
+        super(ExceptionMessage.PART_AMOUNT_NOT_EXISTING, partName, amount);
     }
 
 }
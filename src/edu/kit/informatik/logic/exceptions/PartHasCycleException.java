@@ -11,6 +11,9 @@ import java.util.List;
  * @version 1.0
  */
 public class PartHasCycleException extends LogicException {
+    private final String bomName;
+    private final String partName;
+    private final List<String> trace;
 
     /**
      * Instantiates a new PartHasCycleException.
@@ -20,8 +23,15 @@ public class PartHasCycleException extends LogicException {
      * @param trace    the trace of the cycle created by adding the part to the BOM
      */
     public PartHasCycleException(String bomName, String partName, List<String> trace) {
-        super(String.format(ExceptionMessage.PART_HAS_CYCLE.toString(),
-                            partName, bomName, String.join("-", trace)));
+        super(ExceptionMessage.PART_HAS_CYCLE);
+        this.bomName = bomName;
+        this.partName = partName;
+        this.trace = trace;
+    }
+
+    @Override
+    protected String formatMessage() {
+        return ExceptionMessage.PART_HAS_CYCLE.format(partName, bomName, String.join("-", trace));
     }
 
 }
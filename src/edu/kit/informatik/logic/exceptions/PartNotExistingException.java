@@ -17,7 +17,7 @@ public class PartNotExistingException extends LogicException {
      * @param partName     the name of the part
      */
     public PartNotExistingException(String assemblyName, String partName) {
-        super(String.format(ExceptionMessage.PART_NOT_EXISTING.toString(), assemblyName, partName));
+        super(ExceptionMessage.PART_NOT_EXISTING, assemblyName, partName);
     }
 
 }
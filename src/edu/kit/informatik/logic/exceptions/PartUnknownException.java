@@ -0,0 +1,22 @@
+package edu.kit.informatik.logic.exceptions;
+
+import edu.kit.informatik.ui.strings.ExceptionMessage;
+
+/**
+ * An exception thrown when a name neither belongs to a BOM nor to a component.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+public class PartUnknownException extends LogicException {
+
+    /**
+     * Instantiates a new PartUnknownException.
+     *
+     * @param partName the name of the part
+     */
+    public PartUnknownException(String partName) {
+        super(ExceptionMessage.PART_UNKNOWN, partName);
+    }
+
+}
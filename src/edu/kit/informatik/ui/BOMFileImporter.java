@@ -0,0 +1,319 @@
+package edu.kit.informatik.ui;
+
+import edu.kit.informatik.logic.Workbench;
+import edu.kit.informatik.logic.exceptions.LogicException;
+import edu.kit.informatik.ui.exceptions.FileNotReadableException;
+import edu.kit.informatik.ui.exceptions.InputException;
+import edu.kit.informatik.ui.exceptions.InvalidParametersException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Imports the BOMs of a text file containing one assembly per line in the syntax addAssembly accepts.
+ *
+ * The file is memory-mapped and split into chunks at line boundaries, which are parsed in parallel.
+ * The parsed BOMs are then added in file order within a single batch of the workbench,
+ * so the product structure is only indexed once.
+ * Every BOM is checked on its own when it is added to the batch, so invalid lines,
+ * including BOMs that would create a cycle, are skipped and reported with their line number.
+ * Should the batch still fail to commit, nothing is imported and the error is reported instead.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+final class BOMFileImporter {
+    /**
+     * The maximum amount of rejected lines whose errors are reported.
+     */
+    static final int MAX_REPORTED_ERRORS = 10;
+
+    private static final String ASSEMBLY_SYNTAX
+            = "<nameAssembly>=<amount1>:<name1>;<amount2>:<name2>;...;<amountn>:<namen>";
+    private static final String LINE_ERROR_FORMAT = "line %d: %s";
+    private static final String COMMIT_ERROR_FORMAT = "import discarded: %s";
+    private static final int MIN_CHUNK_SIZE = 1 << 20;
+    private static final int MAX_CHUNK_SIZE = 1 << 28;
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final int BOUNDARY_SEARCH_SIZE = 1 << 12;
+    private static final byte LINE_FEED = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+
+    private final Workbench workbench;
+    private final List<String> errors;
+    private int importedCount;
+    private int rejectedCount;
+
+    /**
+     * Instantiates a new BOMFileImporter.
+     *
+     * @param workbench the workbench to add the BOMs to
+     */
+    BOMFileImporter(Workbench workbench) {
+        this.workbench = workbench;
+        this.errors = new ArrayList<>();
+        this.importedCount = 0;
+        this.rejectedCount = 0;
+    }
+
+    /**
+     * Gets the amount of BOMs that have been added to the workbench.
+     *
+     * @return the amount of imported BOMs
+     */
+    int getImportedCount() {
+        return importedCount;
+    }
+
+    /**
+     * Gets the amount of non-blank lines that have been skipped.
+     *
+     * @return the amount of rejected lines
+     */
+    int getRejectedCount() {
+        return rejectedCount;
+    }
+
+    /**
+     * Gets the errors of the first rejected lines, prefixed with their line number.
+     *
+     * @return the errors
+     */
+    List<String> getErrors() {
+        return errors;
+    }
+
+    /**
+     * Imports all valid BOMs of a file.
+     *
+     * @param fileName the name of the file
+     * @throws InputException when the file cannot be read
+     * @throws LogicException when a batch has already been started
+     */
+    void importFile(String fileName) throws InputException, LogicException {
+        List<ParsedChunk> parsedChunks;
+
+        try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+            parsedChunks = splitIntoChunks(channel).parallelStream()
+                    .map(chunk -> parseChunk(channel, chunk))
+                    .collect(Collectors.toList());
+        } catch (IOException | UncheckedIOException | InvalidPathException e) {
+            throw new FileNotReadableException(fileName);
+        }
+
+        addParsedBOMs(parsedChunks);
+    }
+
+    /**
+     * Adds the parsed BOMs to the workbench within a single batch.
+     * If the batch cannot be committed, all lines count as rejected and the error of the commit is reported.
+     *
+     * @param parsedChunks the parsed chunks in file order
+     * @throws LogicException when a batch has already been started
+     */
+    private void addParsedBOMs(List<ParsedChunk> parsedChunks) throws LogicException {
+        int firstLine = 1;
+
+        workbench.beginBatch();
+        for (ParsedChunk parsedChunk : parsedChunks) {
+            for (ParsedLine parsedLine : parsedChunk.lines) {
+                int lineNumber = firstLine + parsedLine.lineIndex;
+
+                try {
+                    if (parsedLine.error != null) {
+                        reject(lineNumber, parsedLine.error);
+                    } else {
+                        workbench.addBOMToBatch(parsedLine.name, parsedLine.partEntries);
+                        importedCount++;
+                    }
+                } catch (LogicException e) {
+                    reject(lineNumber, e.getMessage());
+                }
+            }
+            firstLine += parsedChunk.lineCount;
+        }
+
+        try {
+            workbench.commitBatch();
+        } catch (LogicException e) {
+            rejectedCount += importedCount;
+            importedCount = 0;
+            // reported regardless of the limit, since it explains why nothing has been imported
+            errors.add(String.format(COMMIT_ERROR_FORMAT, e.getMessage()));
+        }
+    }
+
+    /**
+     * Counts a rejected line and remembers its error if not too many errors have been reported yet.
+     *
+     * @param lineNumber the number of the line
+     * @param error the error message
+     */
+    private void reject(int lineNumber, String error) {
+        rejectedCount++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(String.format(LINE_ERROR_FORMAT, lineNumber, error));
+        }
+    }
+
+    /**
+     * Splits a file into chunks ending directly after a line feed, only the last chunk may end without one.
+     *
+     * @param channel the channel of the file
+     * @return the chunks in file order, each given by its start and end offset
+     * @throws IOException when the file cannot be read
+     */
+    private static List<long[]> splitIntoChunks(FileChannel channel) throws IOException {
+        long size = channel.size();
+        long targetSize = size / ((long) Runtime.getRuntime().availableProcessors() * CHUNKS_PER_THREAD);
+        long chunkSize = Math.min(Math.max(targetSize, MIN_CHUNK_SIZE), MAX_CHUNK_SIZE);
+        List<long[]> chunks = new ArrayList<>();
+        ByteBuffer buffer = ByteBuffer.allocate(BOUNDARY_SEARCH_SIZE);
+
+        long start = 0;
+        while (start < size) {
+            long end = Math.min(start + chunkSize, size);
+            // extend the chunk to the end of the line it would cut
+            while (end < size && end - start < Integer.MAX_VALUE) {
+                buffer.clear();
+                int read = channel.read(buffer, end - 1);
+                int lineFeed = indexOfLineFeed(buffer, read);
+                if (lineFeed >= 0) {
+                    end += lineFeed;
+                    break;
+                }
+                end += read;
+            }
+            end = Math.min(Math.min(end, size), start + Integer.MAX_VALUE);
+            chunks.add(new long[] {start, end});
+            start = end;
+        }
+        return chunks;
+    }
+
+    /**
+     * Gets the position of the first line feed in a buffer.
+     *
+     * @param buffer the buffer
+     * @param length the amount of bytes read into the buffer
+     * @return the position or -1 if the buffer contains no line feed
+     */
+    private static int indexOfLineFeed(ByteBuffer buffer, int length) {
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(i) == LINE_FEED) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Maps a chunk into memory and parses all of its lines.
+     * Does not access the workbench, so chunks can be parsed in parallel.
+     *
+     * @param channel the channel of the file
+     * @param chunk the start and end offset of the chunk
+     * @return the parsed chunk
+     * @throws UncheckedIOException when the chunk cannot be mapped
+     */
+    private static ParsedChunk parseChunk(FileChannel channel, long[] chunk) {
+        MappedByteBuffer buffer;
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, chunk[0], chunk[1] - chunk[0]);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        ParsedChunk parsedChunk = new ParsedChunk();
+        ParameterParser parser = new ParameterParser();
+        byte[] lineBytes = new byte[BOUNDARY_SEARCH_SIZE];
+        int lineLength = 0;
+
+        while (buffer.hasRemaining()) {
+            byte b = buffer.get();
+            if (b == LINE_FEED) {
+                parseLine(parser, lineBytes, lineLength, parsedChunk);
+                parsedChunk.lineCount++;
+                lineLength = 0;
+            } else {
+                if (lineLength == lineBytes.length) {
+                    lineBytes = Arrays.copyOf(lineBytes, lineLength * 2);
+                }
+                lineBytes[lineLength++] = b;
+            }
+        }
+        if (lineLength > 0) {
+            parseLine(parser, lineBytes, lineLength, parsedChunk);
+        }
+        return parsedChunk;
+    }
+
+    /**
+     * Parses a single line and adds it to its chunk unless it is blank.
+     *
+     * @param parser the parser of the chunk
+     * @param lineBytes the bytes of the line
+     * @param length the length of the line
+     * @param parsedChunk the chunk the line belongs to
+     */
+    private static void parseLine(ParameterParser parser, byte[] lineBytes, int length, ParsedChunk parsedChunk) {
+        if (length > 0 && lineBytes[length - 1] == CARRIAGE_RETURN) {
+            length--;
+        }
+        if (length == 0) {
+            return;
+        }
+
+        // every byte is mapped to exactly one character, names with non-ASCII characters are rejected anyway
+        String line = new String(lineBytes, 0, length, StandardCharsets.ISO_8859_1);
+        ParsedLine parsedLine = new ParsedLine(parsedChunk.lineCount);
+
+        try {
+            ParsedParameters parameters = parser.parseAssembly(line);
+            if (parameters == null) {
+                throw new InvalidParametersException(ASSEMBLY_SYNTAX);
+            }
+            parsedLine.name = parameters.getName();
+            parsedLine.partEntries = CommandLineInterface.getPartEntriesFromParameters(parameters);
+        } catch (InputException | LogicException e) {
+            parsedLine.error = e.getMessage();
+        }
+        parsedChunk.lines.add(parsedLine);
+    }
+
+    /**
+     * The parsed lines of a chunk.
+     */
+    private static final class ParsedChunk {
+        private final List<ParsedLine> lines = new ArrayList<>();
+        private int lineCount = 0;
+    }
+
+    /**
+     * A parsed line, either holding an assembly or the error why it has been rejected.
+     */
+    private static final class ParsedLine {
+        private final int lineIndex;
+        private String name;
+        private Map<String, Long> partEntries;
+        private String error;
+
+        /**
+         * Instantiates a new ParsedLine.
+         *
+         * @param lineIndex the index of the line within its chunk
+         */
+        private ParsedLine(int lineIndex) {
+            this.lineIndex = lineIndex;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package edu.kit.informatik.ui;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Collects printed lines and error messages in their order, so they can be passed to another sink later.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+final class CollectedOutput implements OutputSink {
+    private final List<String> lines;
+    /**
+     * The indices of all lines that are error messages.
+     */
+    private final BitSet errors;
+
+    /**
+     * Instantiates a new empty CollectedOutput.
+     */
+    CollectedOutput() {
+        lines = new ArrayList<>();
+        errors = new BitSet();
+    }
+
+    @Override
+    public void printLine(String line) {
+        lines.add(line);
+    }
+
+    @Override
+    public void printError(String errorMessage) {
+        errors.set(lines.size());
+        lines.add(errorMessage);
+    }
+
+    /**
+     * Prints all collected lines and error messages to another sink in the order they have been collected.
+     *
+     * @param sink the sink
+     */
+    void writeTo(OutputSink sink) {
+        for (int i = 0; i < lines.size(); i++) {
+            if (errors.get(i)) {
+                sink.printError(lines.get(i));
+            } else {
+                sink.printLine(lines.get(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package edu.kit.informatik.ui;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A flight recorder event emitted for every executed command.
+ *
+ * It is only committed while a recording has it enabled, otherwise emitting it costs no more than a check of a flag.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+@Name("edu.kit.informatik.Command")
+@Label("Command")
+@Category({"BOM Workbench", "Commands"})
+@Description("The execution of a parsed command line, including printing its output")
+@StackTrace(false)
+final class CommandEvent extends Event {
+    /**
+     * The outcome of a command that printed no error.
+     */
+    static final String OUTCOME_SUCCESS = "SUCCESS";
+    /**
+     * The outcome of a command that printed an error.
+     */
+    static final String OUTCOME_ERROR = "ERROR";
+
+    @Label("Instruction")
+    String instruction;
+
+    @Label("Parameter Size")
+    @Description("The length of the parameters of the command line in characters")
+    int parameterSize;
+
+    @Label("Outcome")
+    String outcome;
+}
@@ -2,14 +2,25 @@ package edu.kit.informatik.ui;
 
 
 import edu.kit.informatik.Terminal;
-import edu.kit.informatik.logic.Assembly;
 import edu.kit.informatik.logic.AssemblyType;
+import edu.kit.informatik.logic.CheckpointStatus;
+import edu.kit.informatik.logic.QueryCost;
 import edu.kit.informatik.logic.Workbench;
 import edu.kit.informatik.logic.exceptions.DuplicatePartsException;
+import edu.kit.informatik.logic.exceptions.InvalidDemandException;
 import edu.kit.informatik.logic.exceptions.InvalidPartAmountException;
 import edu.kit.informatik.logic.exceptions.LogicException;
+import edu.kit.informatik.ui.exceptions.FileNotReadableException;
+import edu.kit.informatik.ui.exceptions.FileNotWritableException;
 import edu.kit.informatik.ui.exceptions.InputException;
-
+import edu.kit.informatik.ui.exceptions.InstructionNotPermittedException;
+import edu.kit.informatik.ui.exceptions.ServerNotStartableException;
+import edu.kit.informatik.ui.exceptions.SnapshotFileMissingException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
 import java.util.*;
 import java.util.Map.Entry;
 
@@ -27,29 +38,58 @@ public class CommandLineInterface {
     /**
      * Separates the name of an assembly from its structure.
      */
-    static final String ASSEMBLY_NAME_SEPARATOR = "=";
+    static final char ASSEMBLY_NAME_SEPARATOR = '=';
     /**
      * Separates several parts of an assembly.
      */
-    static final String ASSEMBLY_PART_SEPARATOR = ";";
+    static final char ASSEMBLY_PART_SEPARATOR = ';';
     /**
      * Separates the name of an part from its amount.
      */
-    static final String PART_AMOUNT_SEPARATOR = ":";
+    static final char PART_AMOUNT_SEPARATOR = ':';
+    /**
+     * Separates the name of an assembly from the part entry to add to it.
+     */
+    static final char PART_ADDITION_OPERATOR = '+';
+    /**
+     * Separates the name of an assembly from the part entry to remove from it.
+     */
+    static final char PART_REMOVAL_OPERATOR = '-';
 
     private static final String MESSAGE_SUCCESS = "OK";
-    private static final String IS_COMPONENT_STRING = "COMPONENT";
+    /**
+     * The exit status of the program when it is stopped because the journal cannot be written.
+     */
+    private static final int JOURNAL_FAILURE_STATUS = 1;
+    static final String IS_COMPONENT_STRING = "COMPONENT";
     private static final String IS_EMPTY_STRING = "EMPTY";
+    private static final String IMPORT_RESULT_FORMAT = "imported %d BOMs, rejected %d lines";
+    private static final String CHECKPOINT_RUNNING_FORMAT = "RUNNING: %d/%d BOMs, %d ms";
+    private static final String CHECKPOINT_FINISHED_FORMAT = "FINISHED: %d BOMs at version %d, %d ms";
+    private static final String CHECKPOINT_FAILED_FORMAT = "FAILED: %s";
+    private static final String EXPLAIN_TRAVERSAL_FORMAT
+            = "%s: %d visits of %d distinct assemblies, revisit factor %.2f, max depth %d";
+    private static final String EXPLAIN_ALLOCATION_FORMAT = "maps allocated: %d, result size: %d";
+    private static final String EXPLAIN_CACHE_FORMAT = "cache: %d hits, %d misses";
+    private static final String EXPLAIN_FROZEN_CACHE = "cache: none, answered from the frozen snapshot";
+    /**
+     * The instruction exploding the components of a BOM, which can be explained.
+     */
+    static final String GET_COMPONENTS_INSTRUCTION = "getComponents";
+    /**
+     * The instruction exploding the assemblies of a BOM, which can be explained.
+     */
+    static final String GET_ASSEMBLIES_INSTRUCTION = "getAssemblies";
 
     /**
      * Comparator to sort the entries HashMaps by their value in descending order.
      */
-    private static final Comparator<Entry<String, Long>> COMPARATOR_VALUE_DESC
+    static final Comparator<Entry<String, Long>> COMPARATOR_VALUE_DESC
             = Comparator.comparing(Map.Entry::getValue, Comparator.reverseOrder());
     /**
      * Comparator to sort the entries of HashMaps by their key in descending order.
      */
-    private static final Comparator<Entry<String, Long>> COMPARATOR_KEY_ASC
+    static final Comparator<Entry<String, Long>> COMPARATOR_KEY_ASC
             = Comparator.comparing(Map.Entry::getKey);
 
     /**
@@ -58,28 +98,248 @@ public class CommandLineInterface {
     final Workbench workbench;
 
     private boolean quitRequested;
+    /**
+     * Whether the CommandLineInterface serves a client of the server, which may not access files.
+     */
+    private final boolean session;
+    /**
+     * The sink all results and errors are printed to.
+     */
+    private OutputSink output;
+    /**
+     * The name of the journal file, null if no journal has been opened.
+     */
+    private String journalFileName;
+    /**
+     * The name of the snapshot file checkpoints are written to, null if none has been specified.
+     */
+    private String snapshotFileName;
+    /**
+     * The time spent printing since the last reset of the print measurement in nanoseconds.
+     */
+    private long printNanos;
+    /**
+     * Whether an error has been printed since the last reset of the print measurement.
+     */
+    private boolean errorPrinted;
 
     /**
      * Instantiates a new CommandLineInterface.
      */
     public CommandLineInterface() {
+        this(OutputSink.TERMINAL);
+    }
+
+    /**
+     * Instantiates a new CommandLineInterface printing to the given sink instead of the terminal.
+     *
+     * @param output the sink all results and errors are printed to
+     */
+    public CommandLineInterface(OutputSink output) {
+        this(new Workbench(), null, null, output, false);
+    }
+
+    /**
+     * Instantiates a new CommandLineInterface.
+     *
+     * @param workbench the workbench to execute the commands on
+     * @param snapshotFileName the name of the snapshot file, null if none has been specified
+     * @param journalFileName the name of the journal file, null if no journal has been opened
+     * @param output the sink all results and errors are printed to
+     * @param session whether the CommandLineInterface serves a client of the server
+     */
+    private CommandLineInterface(Workbench workbench, String snapshotFileName, String journalFileName,
+                                 OutputSink output, boolean session) {
         this.quitRequested = false;
-        this.workbench = new Workbench();
+        this.session = session;
+        this.output = output;
+        this.workbench = workbench;
+        this.journalFileName = journalFileName;
+        this.snapshotFileName = snapshotFileName;
+    }
+
+    /**
+     * Opens a session of a client sharing the workbench of this CommandLineInterface.
+     * The session rejects all instructions that access files, since clients must not read or write
+     * arbitrary files with the rights of the server.
+     *
+     * @param sessionOutput the sink all results and errors of the session are printed to
+     * @return the CommandLineInterface of the session
+     */
+    CommandLineInterface openSession(OutputSink sessionOutput) {
+        return new CommandLineInterface(workbench, snapshotFileName, journalFileName, sessionOutput, true);
+    }
+
+    /**
+     * Ends a session, discarding the batch it may have started.
+     */
+    void closeSession() {
+        try {
+            workbench.abortBatch();
+        } catch (LogicException e) {
+            // the session has not started a batch
+        }
+    }
+
+    /**
+     * Restores the workbench from a snapshot and a journal and appends all further mutations to the journal.
+     *
+     * @param snapshotFileName the name of the snapshot file, ignored if it is null or the file does not exist
+     * @param journalFileName the name of the journal file, created if it does not exist, null for no journal
+     * @param journalSyncCount the amount of journal records that are forced to disk at once
+     * @param journalSyncMillis the time in milliseconds after which journal records are forced to disk,
+     *                          0 for no limit
+     * @return whether the workbench has been restored, otherwise an error has been printed
+     */
+    public boolean recover(String snapshotFileName, String journalFileName,
+                           int journalSyncCount, long journalSyncMillis) {
+        this.snapshotFileName = snapshotFileName;
+        try {
+            if (snapshotFileName != null && Files.exists(Paths.get(snapshotFileName))) {
+                loadSnapshot(snapshotFileName);
+            }
+            if (journalFileName != null) {
+                workbench.openJournal(Paths.get(journalFileName), journalSyncCount, journalSyncMillis,
+                                      e -> stopOnJournalFailure(journalFileName));
+                this.journalFileName = journalFileName;
+            }
+            return true;
+        } catch (IOException | InvalidPathException e) {
+            printError(new FileNotWritableException(journalFileName).getMessage());
+        } catch (InputException | LogicException e) {
+            printError(e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Stops the program once the journal cannot be written anymore. The workbench already holds mutations
+     * the journal misses, so answering further commands would continue from a state that cannot be recovered.
+     * Shutdown hooks are skipped, since they would try to close the failed journal.
+     *
+     * @param journalFileName the name of the journal file
+     */
+    private void stopOnJournalFailure(String journalFileName) {
+        printError(new FileNotWritableException(journalFileName).getMessage());
+        Terminal.flush();
+        Runtime.getRuntime().halt(JOURNAL_FAILURE_STATUS);
     }
 
     /**
      * Starts the CommandLineInterface awaiting user input.
+     * Once the input ends, a running checkpoint is awaited and the journal is closed.
      */
     public void start() {
-        while (this.isRunning()) {
-            String commandStr = Terminal.readLine();
-
-            try {
-                Command cmd = Command.fromString(commandStr);
-                cmd.execute(this);
-            } catch (InputException e) {
-                printError(e.getMessage());
+        start(LineSource.TERMINAL);
+    }
+
+    /**
+     * Starts the CommandLineInterface reading its input from the given source.
+     * Once the input ends, a running checkpoint is awaited and the journal is closed.
+     *
+     * @param input the source of the input lines
+     */
+    public void start(LineSource input) {
+        try {
+            String line;
+            while (this.isRunning() && (line = input.readLine()) != null) {
+                execute(line);
             }
+        } finally {
+            closeWorkbench();
+        }
+    }
+
+    /**
+     * Starts the CommandLineInterface awaiting user input, which is read, parsed, executed and printed
+     * by separate threads. The output equals the one of start.
+     * Once the input ends, a running checkpoint is awaited and the journal is closed.
+     *
+     * @param parserCount the amount of threads parsing the input
+     */
+    public void startPipelined(int parserCount) {
+        try {
+            new CommandPipeline(this, parserCount).run();
+        } finally {
+            closeWorkbench();
+        }
+    }
+
+    /**
+     * Serves clients connecting to a local port until the program is terminated.
+     * Every client is served in its own session speaking the same line protocol as the terminal.
+     *
+     * @param port the port to listen on
+     */
+    public void startServer(int port) {
+        Runtime.getRuntime().addShutdownHook(new Thread(this::closeWorkbench, "server-shutdown"));
+        try {
+            new CommandServer(this).run(port);
+        } catch (IOException e) {
+            printError(new ServerNotStartableException(port).getMessage());
+        } finally {
+            closeWorkbench();
+        }
+    }
+
+    /**
+     * Starts answering queries and mutations as JSON over HTTP on a local port in the background.
+     *
+     * @param port the port to listen on
+     * @return whether the endpoint has been started, otherwise an error has been printed
+     */
+    public boolean startHttpEndpoint(int port) {
+        try {
+            new HttpEndpoint(this).start(port);
+            return true;
+        } catch (IOException e) {
+            printError(new ServerNotStartableException(port).getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Writes the stats of all instructions to a file now and after every interval in the background.
+     *
+     * @param fileName the name of the file
+     * @param intervalSeconds the interval in seconds
+     * @return whether the first write has succeeded, otherwise an error has been printed
+     */
+    public boolean startStatsExport(String fileName, long intervalSeconds) {
+        try {
+            new StatsExport(Paths.get(fileName)).start(intervalSeconds);
+            return true;
+        } catch (IOException | InvalidPathException e) {
+            printError(new FileNotWritableException(fileName).getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Parses and executes a single input line.
+     *
+     * @param commandStr the input line
+     */
+    void execute(String commandStr) {
+        try {
+            ParsedCommand cmd = Command.fromString(commandStr);
+            if (session && cmd.getCommand().accessesFiles()) {
+                throw new InstructionNotPermittedException(cmd.getCommand().getInstruction());
+            }
+            cmd.execute(this);
+        } catch (InputException e) {
+            printError(e.getMessage());
+        }
+    }
+
+    /**
+     * Waits for a running checkpoint, then forces all pending journal records to disk and closes the journal.
+     */
+    private void closeWorkbench() {
+        try {
+            workbench.close();
+        } catch (IOException e) {
+            printError(new FileNotWritableException(journalFileName).getMessage());
         }
     }
 
@@ -99,13 +359,24 @@ public class CommandLineInterface {
         this.quitRequested = true;
     }
 
+    /**
+     * Sets the sink all further results and errors are printed to.
+     *
+     * @param output the sink
+     */
+    void setOutput(OutputSink output) {
+        this.output = output;
+    }
+
     /**
      * Prints a line to console.
      *
      * @param obj the obj
      */
     void printLine(Object obj) {
-        Terminal.printLine(obj.toString());
+        long start = System.nanoTime();
+        output.printLine(obj.toString());
+        printNanos += System.nanoTime() - start;
     }
 
     /**
@@ -114,7 +385,36 @@ public class CommandLineInterface {
      * @param msg the msg
      */
     void printError(String msg) {
-        Terminal.printError(msg);
+        long start = System.nanoTime();
+        output.printError(msg);
+        printNanos += System.nanoTime() - start;
+        errorPrinted = true;
+    }
+
+    /**
+     * Starts measuring the time spent printing and whether an error is printed.
+     */
+    void resetPrintMeasurement() {
+        printNanos = 0;
+        errorPrinted = false;
+    }
+
+    /**
+     * Gets the time spent printing since the print measurement has been reset.
+     *
+     * @return the time in nanoseconds
+     */
+    long getPrintNanos() {
+        return printNanos;
+    }
+
+    /**
+     * Determines whether an error has been printed since the print measurement has been reset.
+     *
+     * @return whether an error has been printed
+     */
+    boolean hasPrintedError() {
+        return errorPrinted;
     }
 
     /**
@@ -126,26 +426,79 @@ public class CommandLineInterface {
 
 
     /**
-     * Creates an assembly from its string representation.
+     * Adds an assembly declared by parsed parameters to the workbench.
+     * Invalid parameters are rejected through the workbench, so they fail a running batch.
      *
-     * @param assemblyStr the string representation of the assembly
-     * @return the assembly
-     * @throws DuplicatePartsException    when two parts declared in the string have the same name
-     * @throws InvalidPartAmountException when the amount of a part declared in the string is invalid
+     * @param params the parameters holding the name and part entries of the assembly
+     * @throws LogicException when two parts declared in the parameters have the same name
+     *                        or the assembly cannot be added
      */
-    Assembly createAssemblyFromString(String assemblyStr) throws DuplicatePartsException, InvalidPartAmountException {
-        String[] assemblyStringSplit = assemblyStr.split(ASSEMBLY_NAME_SEPARATOR);
+    void addAssemblyFromParameters(ParsedParameters params) throws LogicException {
+        Map<String, Long> partEntries;
+        try {
+            partEntries = getPartEntriesFromParameters(params);
+        } catch (DuplicatePartsException | InvalidPartAmountException e) {
+            workbench.rejectMutation(e);
+            return;
+        }
+        workbench.addBOM(params.getName(), partEntries);
+    }
 
-        String assemblyName = assemblyStringSplit[0];
-        String[] partStrings = assemblyStringSplit[1].split(ASSEMBLY_PART_SEPARATOR);
+    /**
+     * Adds the amount of a part declared by parsed parameters to a BOM.
+     * An invalid amount is rejected through the workbench, so it fails a running batch.
+     *
+     * @param params the parameters holding the name of the BOM and the part entry
+     * @throws LogicException when the amount does not fit into a long or the part cannot be added
+     */
+    void addPartFromParameters(ParsedParameters params) throws LogicException {
+        long partAmount;
+        try {
+            partAmount = params.getPartAmount(0);
+        } catch (InvalidPartAmountException e) {
+            workbench.rejectMutation(e);
+            return;
+        }
+        workbench.addPartAmountToBOM(params.getName(), params.getPartName(0), partAmount);
+    }
+
+    /**
+     * Removes the amount of a part declared by parsed parameters from a BOM.
+     * An invalid amount is rejected through the workbench, so it fails a running batch.
+     *
+     * @param params the parameters holding the name of the BOM and the part entry
+     * @throws LogicException when the amount does not fit into a long or the part cannot be removed
+     */
+    void removePartFromParameters(ParsedParameters params) throws LogicException {
+        long partAmount;
+        try {
+            partAmount = params.getPartAmount(0);
+        } catch (InvalidPartAmountException e) {
+            workbench.rejectMutation(e);
+            return;
+        }
+        workbench.removePartAmountFromBOM(params.getName(), params.getPartName(0), partAmount);
+    }
 
+    /**
+     * Collects the part entries of parsed parameters.
+     * Does not access the workbench, so it may be called from any thread.
+     *
+     * @param params the parameters holding the name and part entries of an assembly
+     * @return a map of part names and their respective amount
+     * @throws DuplicatePartsException    when two parts declared in the parameters have the same name
+     * @throws InvalidPartAmountException when the amount of a part declared in the parameters does not fit into a long
+     */
+    static Map<String, Long> getPartEntriesFromParameters(ParsedParameters params)
+            throws DuplicatePartsException, InvalidPartAmountException {
+
+        String assemblyName = params.getName();
         HashMap<String, Long> partEntries = new HashMap<>();
         Set<String> duplicatePartNames = new HashSet<>();
 
-        for (String partString : partStrings) {
-            String[] partStringSplit = partString.split(PART_AMOUNT_SEPARATOR);
-            String partName = partStringSplit[1];
-            Long partAmount = getPartAmountFromString(assemblyName, partName, partStringSplit[0]);
+        for (int i = 0; i < params.getPartCount(); i++) {
+            String partName = params.getPartName(i);
+            Long partAmount = params.getPartAmount(i);
 
             if (partEntries.containsKey(partName)) {
                 duplicatePartNames.add(partName);
@@ -157,8 +510,7 @@ public class CommandLineInterface {
         if (duplicatePartNames.size() != 0) {
             throw new DuplicatePartsException(assemblyName, duplicatePartNames);
         }
-
-        return new Assembly(assemblyName, partEntries);
+        return partEntries;
     }
 
     /**
@@ -169,11 +521,10 @@ public class CommandLineInterface {
      */
     void printAssemblyByName(String assemblyName) throws LogicException {
         if (workbench.hasComponent(assemblyName)) {
-            Terminal.printLine(IS_COMPONENT_STRING);
+            printLine(IS_COMPONENT_STRING);
         } else {
-            Assembly assembly = workbench.getBOM(assemblyName);
             // partCounts means in this case only the direct parts not the parts of sub-parts
-            List<Entry<String, Long>> partCounts = new ArrayList<>(assembly.getPartEntries());
+            List<Entry<String, Long>> partCounts = new ArrayList<>(workbench.getPartEntriesOf(assemblyName));
 
             partCounts.sort(COMPARATOR_KEY_ASC);
             printPartCounts(partCounts);
@@ -187,11 +538,10 @@ public class CommandLineInterface {
      * @throws LogicException when the assembly does not exist
      */
     void printBOMCountsOf(String assemblyName) throws LogicException {
-        Assembly assembly = workbench.getBOM(assemblyName);
-        HashMap<String, Long> bomCounts = workbench.getPartCountsOf(assembly, AssemblyType.BOM);
+        Map<String, Long> bomCounts = workbench.getPartCountsOf(assemblyName, AssemblyType.BOM);
 
         if (bomCounts.size() == 0) {
-            Terminal.printLine(IS_EMPTY_STRING);
+            printLine(IS_EMPTY_STRING);
         } else {
             List<Entry<String, Long>> bomCountList = new ArrayList<>(bomCounts.entrySet());
 
@@ -207,14 +557,197 @@ public class CommandLineInterface {
      * @throws LogicException when the assembly does not exist
      */
     void printComponentCountsOf(String assemblyName) throws LogicException {
-        Assembly assembly = workbench.getBOM(assemblyName);
-        HashMap<String, Long> componentCounts = workbench.getPartCountsOf(assembly, AssemblyType.COMPONENT);
+        Map<String, Long> componentCounts = workbench.getPartCountsOf(assemblyName, AssemblyType.COMPONENT);
         List<Entry<String, Long>> componentCountList = new ArrayList<>(componentCounts.entrySet());
 
         componentCountList.sort(COMPARATOR_VALUE_DESC.thenComparing(COMPARATOR_KEY_ASC));
         printPartCounts(componentCountList);
     }
 
+    /**
+     * Prints the counts of all components and then of all BOMs required to build the demanded BOMs.
+     * Demands of the same BOM given several times are added up.
+     *
+     * @param params the parameters holding the demanded amount and the name of every BOM as part entries
+     * @throws LogicException when a BOM does not exist or a demand does not fit into a long
+     */
+    void printPlanOf(ParsedParameters params) throws LogicException {
+        Map<String, Long> demands = new HashMap<>();
+        for (int i = 0; i < params.getPartCount(); i++) {
+            String bomName = params.getPartName(i);
+            long demand = params.getDemand(i);
+            Long previousDemand = demands.get(bomName);
+
+            if (previousDemand != null) {
+                if (demand > Long.MAX_VALUE - previousDemand) {
+                    // both demands are positive, so their sum fits into an unsigned long
+                    throw new InvalidDemandException(bomName, Long.toUnsignedString(previousDemand + demand));
+                }
+                demand += previousDemand;
+            }
+            demands.put(bomName, demand);
+        }
+
+        Map<AssemblyType, Map<String, Long>> plannedCounts = workbench.getPlannedPartCountsOf(demands);
+        for (AssemblyType assemblyType : new AssemblyType[] {AssemblyType.COMPONENT, AssemblyType.BOM}) {
+            List<Entry<String, Long>> countList = new ArrayList<>(plannedCounts.get(assemblyType).entrySet());
+
+            if (countList.isEmpty()) {
+                printLine(IS_EMPTY_STRING);
+            } else {
+                countList.sort(COMPARATOR_VALUE_DESC.thenComparing(COMPARATOR_KEY_ASC));
+                printPartCounts(countList);
+            }
+        }
+    }
+
+    /**
+     * Runs the explosion of an explained instruction and prints how it traversed the product structure.
+     *
+     * @param instruction the explained instruction, getComponents or getAssemblies
+     * @param assemblyName the name of the assembly
+     * @throws LogicException when the assembly does not exist
+     */
+    void printQueryCostOf(String instruction, String assemblyName) throws LogicException {
+        AssemblyType assemblyType = instruction.equals(GET_COMPONENTS_INSTRUCTION)
+                ? AssemblyType.COMPONENT : AssemblyType.BOM;
+        QueryCost cost = workbench.explainPartCountsOf(assemblyName, assemblyType);
+
+        printLine(String.format(Locale.ROOT, EXPLAIN_TRAVERSAL_FORMAT, instruction, cost.getVisitCount(),
+                cost.getDistinctCount(), cost.getRevisitFactor(), cost.getMaxDepth()));
+        printLine(String.format(EXPLAIN_ALLOCATION_FORMAT, cost.getAllocatedMapCount(), cost.getResultSize()));
+        printLine(cost.isFrozen() ? EXPLAIN_FROZEN_CACHE
+                : String.format(EXPLAIN_CACHE_FORMAT, cost.getCacheHitCount(), cost.getCacheMissCount()));
+    }
+
+    /**
+     * Prints all BOMs that directly or indirectly use the part and the amount of the part each of them needs.
+     *
+     * @param partName the name of the part
+     * @throws LogicException when neither a BOM nor a component with the given name exists
+     */
+    void printUsagesOf(String partName) throws LogicException {
+        Map<String, Long> usages = workbench.getUsagesOf(partName);
+
+        if (usages.size() == 0) {
+            printLine(IS_EMPTY_STRING);
+        } else {
+            List<Entry<String, Long>> usageList = new ArrayList<>(usages.entrySet());
+
+            usageList.sort(COMPARATOR_VALUE_DESC.thenComparing(COMPARATOR_KEY_ASC));
+            printPartCounts(usageList);
+        }
+    }
+
+    /**
+     * Imports all valid BOMs of a file and prints the errors of the first rejected lines
+     * followed by the amount of imported BOMs and rejected lines.
+     *
+     * @param fileName the name of the file containing one assembly per line
+     * @throws InputException when the file cannot be read
+     * @throws LogicException when a batch has already been started
+     */
+    void importBOMFile(String fileName) throws InputException, LogicException {
+        BOMFileImporter importer = new BOMFileImporter(workbench);
+
+        try {
+            importer.importFile(fileName);
+        } finally {
+            for (String error : importer.getErrors()) {
+                printError(error);
+            }
+        }
+        printLine(String.format(IMPORT_RESULT_FORMAT, importer.getImportedCount(), importer.getRejectedCount()));
+    }
+
+    /**
+     * Writes all BOMs of the workbench to a snapshot file.
+     *
+     * @param fileName the name of the file
+     * @throws InputException when the file cannot be written
+     */
+    void saveSnapshot(String fileName) throws InputException {
+        try {
+            workbench.saveSnapshot(Paths.get(fileName));
+        } catch (IOException | InvalidPathException e) {
+            throw new FileNotWritableException(fileName);
+        }
+    }
+
+    /**
+     * Replaces all BOMs of the workbench by the ones of a snapshot file.
+     *
+     * @param fileName the name of the file
+     * @throws InputException when the file cannot be read
+     * @throws LogicException when a batch has been started or the file is no valid snapshot
+     */
+    void loadSnapshot(String fileName) throws InputException, LogicException {
+        try {
+            workbench.loadSnapshot(Paths.get(fileName));
+        } catch (IOException | InvalidPathException e) {
+            throw new FileNotReadableException(fileName);
+        }
+    }
+
+    /**
+     * Starts writing the snapshot file specified at startup in the background.
+     *
+     * @throws InputException when no snapshot file has been specified or the journal cannot be written
+     * @throws LogicException when the last checkpoint is still running
+     */
+    void startCheckpoint() throws InputException, LogicException {
+        if (snapshotFileName == null) {
+            throw new SnapshotFileMissingException();
+        }
+        try {
+            workbench.startCheckpoint(Paths.get(snapshotFileName));
+        } catch (InvalidPathException e) {
+            throw new FileNotWritableException(snapshotFileName);
+        } catch (IOException e) {
+            throw new FileNotWritableException(journalFileName);
+        }
+    }
+
+    /**
+     * Prints the progress of the last checkpoint.
+     */
+    void printCheckpointStatus() {
+        CheckpointStatus status = workbench.getCheckpointStatus();
+
+        switch (status.getState()) {
+            case RUNNING:
+                printLine(String.format(CHECKPOINT_RUNNING_FORMAT, status.getWrittenBOMCount(),
+                        status.getBOMCount(), status.getDurationMillis()));
+                break;
+            case FINISHED:
+                printLine(String.format(CHECKPOINT_FINISHED_FORMAT, status.getBOMCount(), status.getVersion(),
+                        status.getDurationMillis()));
+                break;
+            case FAILED:
+                printLine(String.format(CHECKPOINT_FAILED_FORMAT,
+                        new FileNotWritableException(status.getFailedFileName()).getMessage()));
+                break;
+            default:
+                printLine(status.getState());
+        }
+    }
+
+    /**
+     * Prints the state of the product structure explosion queries are answered from.
+     */
+    void printGraphState() {
+        printLine(workbench.getGraphState());
+    }
+
+    /**
+     * Prints the overall throughput and the calls, errors and latencies of every instruction that has been called.
+     */
+    void printStats() {
+        for (String line : CommandStats.formatReport(CommandList.getStats())) {
+            printLine(line);
+        }
+    }
+
     /**
      * Prints key value pairs of partNames and their respective amount to console.
      *
@@ -232,24 +765,6 @@ public class CommandLineInterface {
             }
             sb.append(partName).append(PART_AMOUNT_SEPARATOR).append(partAmount);
         }
-        Terminal.printLine(sb.toString());
-    }
-
-    /**
-     * @param bomName The name of the bom that has the part
-     * @param partName the name of the part
-     * @param partAmountStr the string representation of the amount of the part
-     * @return the amount represented by the string
-     * @throws InvalidPartAmountException when the amount is not a valid number
-     */
-    public long getPartAmountFromString(String bomName, String partName, String partAmountStr)
-            throws InvalidPartAmountException {
-
-        try {
-            long partAmount = Long.parseLong(partAmountStr);
-            return partAmount;
-        } catch (NumberFormatException e) {
-            throw new InvalidPartAmountException(bomName, partName, partAmountStr);
-        }
+        printLine(sb.toString());
     }
 }
@@ -1,8 +1,7 @@
 package edu.kit.informatik.ui;
 
-import edu.kit.informatik.Terminal;
-import edu.kit.informatik.logic.Assembly;
 import edu.kit.informatik.logic.exceptions.LogicException;
+import edu.kit.informatik.ui.exceptions.InputException;
 
 import java.util.*;
 
@@ -25,143 +24,352 @@ class CommandList {
             "addAssembly <nameAssembly>=<amount1>:<name1>;<amount2>:<name2>;...;<amountn>:<namen>") {
 
             @Override
-            public void execute(CommandLineInterface cli) {
+            public void execute(CommandLineInterface cli, ParsedParameters params) {
                 try {
-                    Assembly assembly = cli.createAssemblyFromString(params);
-                    cli.workbench.addBOM(assembly);
+                    cli.addAssemblyFromParameters(params);
                     cli.printSuccessMessage();
                 } catch (LogicException e) {
-                    Terminal.printError(e.getMessage());
+                    cli.printError(e.getMessage());
                 }
             }
             @Override
-            public boolean isValid() {
-                return params.matches(Command.ASSEMBLY_REGEX);
+            public ParsedParameters parse(String params, ParameterParser parser) {
+                return parser.parseAssembly(params);
             }
         });
         put("removeAssembly",
             new Command("removeAssembly <nameAssembly>") {
 
             @Override
-            public void execute(CommandLineInterface cli) {
+            public void execute(CommandLineInterface cli, ParsedParameters params) {
                 try {
-                    cli.workbench.removeBOM(params);
+                    cli.workbench.removeBOM(params.getName());
                     cli.printSuccessMessage();
                 } catch (LogicException e) {
-                    Terminal.printError(e.getMessage());
+                    cli.printError(e.getMessage());
                 }
             }
             @Override
-            public boolean isValid() {
-                return params.matches(Command.ALPHABET_REGEX);
+            public ParsedParameters parse(String params, ParameterParser parser) {
+                return parser.parseName(params);
             }
         });
         put("printAssembly",
             new Command("printAssembly <nameAssembly>") {
 
             @Override
-            public void execute(CommandLineInterface cli) {
+            public void execute(CommandLineInterface cli, ParsedParameters params) {
                 try {
-                    cli.printAssemblyByName(params);
+                    cli.printAssemblyByName(params.getName());
                 } catch (LogicException e) {
-                    Terminal.printError(e.getMessage());
+                    cli.printError(e.getMessage());
                 }
             }
             @Override
-            public boolean isValid() {
-                return params.matches(Command.ALPHABET_REGEX);
+            public ParsedParameters parse(String params, ParameterParser parser) {
+                return parser.parseName(params);
             }
         });
         put("getAssemblies",
             new Command("getAssemblies <nameAssembly>") {
 
             @Override
-            public void execute(CommandLineInterface cli) {
+            public void execute(CommandLineInterface cli, ParsedParameters params) {
                 try {
-                    cli.printBOMCountsOf(params);
+                    cli.printBOMCountsOf(params.getName());
                 } catch (LogicException e) {
-                    Terminal.printError(e.getMessage());
+                    cli.printError(e.getMessage());
                 }
             }
             @Override
-            public boolean isValid() {
-                return params.matches(Command.ALPHABET_REGEX);
+            public ParsedParameters parse(String params, ParameterParser parser) {
+                return parser.parseName(params);
             }
         });
         put("getComponents",
             new Command("getComponents <nameAssembly>") {
 
             @Override
-            public void execute(CommandLineInterface cli) {
+            public void execute(CommandLineInterface cli, ParsedParameters params) {
                 try {
-                    cli.printComponentCountsOf(params);
+                    cli.printComponentCountsOf(params.getName());
                 } catch (LogicException e) {
-                    Terminal.printError(e.getMessage());
+                    cli.printError(e.getMessage());
                 }
             }
             @Override
-            public boolean isValid() {
-                return params.matches(Command.ALPHABET_REGEX);
+            public ParsedParameters parse(String params, ParameterParser parser) {
+                return parser.parseName(params);
             }
         });
-        put("addPart",
-            new Command("addPart <nameAssembly>+<amount>:<name>") {
+        put("plan",
+            new Command("plan <amount1>:<name1>;<amount2>:<name2>;...") {
+
+            @Override
+            public void execute(CommandLineInterface cli, ParsedParameters params) {
+                try {
+                    cli.printPlanOf(params);
+                } catch (LogicException e) {
+                    cli.printError(e.getMessage());
+                }
+            }
+            @Override
+            public ParsedParameters parse(String params, ParameterParser parser) {
+                return parser.parsePartEntries(params);
+            }
+        });
+        put("explain",
+            new Command("explain <getComponents|getAssemblies> <nameAssembly>") {
 
             @Override
-            @SuppressWarnings("Duplicates")
-            public void execute(CommandLineInterface cli) {
-                Map<String, String> paramMap = getParameterMap();
+            public void execute(CommandLineInterface cli, ParsedParameters params) {
+                try {
+                    cli.printQueryCostOf(params.getText(), params.getName());
+                } catch (LogicException e) {
+                    cli.printError(e.getMessage());
+                }
+            }
+            @Override
+            public ParsedParameters parse(String params, ParameterParser parser) {
+                return parser.parseExplainedQuery(params);
+            }
+        });
+        put("getUsages",
+            new Command("getUsages <name>") {
 
-                String assemblyName = paramMap.get("nameAssembly");
-                String partName = paramMap.get("name");
-                String amountStr = paramMap.get("amount");
+            @Override
+            public void execute(CommandLineInterface cli, ParsedParameters params) {
+                try {
+                    cli.printUsagesOf(params.getName());
+                } catch (LogicException e) {
+                    cli.printError(e.getMessage());
+                }
+            }
+            @Override
+            public ParsedParameters parse(String params, ParameterParser parser) {
+                return parser.parseName(params);
+            }
+        });
+        put("addPart",
+            new Command("addPart <nameAssembly>+<amount>:<name>") {
 
+            @Override
+            public void execute(CommandLineInterface cli, ParsedParameters params) {
                 try {
-                    long partAmount = cli.getPartAmountFromString(assemblyName, partName, amountStr);
-                    cli.workbench.addPartAmountToBOM(assemblyName, partName, partAmount);
+                    cli.addPartFromParameters(params);
                     cli.printSuccessMessage();
                 } catch (LogicException e) {
-                    Terminal.printError(e.getMessage());
+                    cli.printError(e.getMessage());
                 }
             }
             @Override
-            public boolean isValid() {
-                return params.matches(Command.ADD_PART_REGEX);
+            public ParsedParameters parse(String params, ParameterParser parser) {
+                return parser.parsePartChange(params, CommandLineInterface.PART_ADDITION_OPERATOR);
             }
         });
         put("removePart",
             new Command("removePart <nameAssembly>-<amount>:<name>") {
 
             @Override
-            @SuppressWarnings("Duplicates")
-            public void execute(CommandLineInterface cli) {
-                Map<String, String> paramMap = getParameterMap();
+            public void execute(CommandLineInterface cli, ParsedParameters params) {
+                try {
+                    cli.removePartFromParameters(params);
+                    cli.printSuccessMessage();
+                } catch (LogicException e) {
+                    cli.printError(e.getMessage());
+                }
+            }
+            @Override
+            public ParsedParameters parse(String params, ParameterParser parser) {
+                return parser.parsePartChange(params, CommandLineInterface.PART_REMOVAL_OPERATOR);
+            }
+        });
+        put("importFile",
+            new Command("importFile <path>") {
 
-                String assemblyName = paramMap.get("nameAssembly");
-                String partName = paramMap.get("name");
-                String amountStr = paramMap.get("amount");
+            @Override
+            boolean accessesFiles() {
+                return true;
+            }
+            @Override
+            public void execute(CommandLineInterface cli, ParsedParameters params) {
+                try {
+                    cli.importBOMFile(params.getText());
+                } catch (InputException | LogicException e) {
+                    cli.printError(e.getMessage());
+                }
+            }
+            @Override
+            public ParsedParameters parse(String params, ParameterParser parser) {
+                return parser.parseText(params);
+            }
+        });
+        put("saveSnapshot",
+            new Command("saveSnapshot <path>") {
 
+            @Override
+            boolean accessesFiles() {
+                return true;
+            }
+            @Override
+            public void execute(CommandLineInterface cli, ParsedParameters params) {
+                try {
+                    cli.saveSnapshot(params.getText());
+                    cli.printSuccessMessage();
+                } catch (InputException e) {
+                    cli.printError(e.getMessage());
+                }
+            }
+            @Override
+            public ParsedParameters parse(String params, ParameterParser parser) {
+                return parser.parseText(params);
+            }
+        });
+        put("loadSnapshot",
+            new Command("loadSnapshot <path>") {
+
+            @Override
+            boolean accessesFiles() {
+                return true;
+            }
+            @Override
+            public void execute(CommandLineInterface cli, ParsedParameters params) {
+                try {
+                    cli.loadSnapshot(params.getText());
+                    cli.printSuccessMessage();
+                } catch (InputException | LogicException e) {
+                    cli.printError(e.getMessage());
+                }
+            }
+            @Override
+            public ParsedParameters parse(String params, ParameterParser parser) {
+                return parser.parseText(params);
+            }
+        });
+        put("beginBatch", new Command("beginBatch") {
+            @Override
+            public void execute(CommandLineInterface cli, ParsedParameters params) {
+                try {
+                    cli.workbench.beginBatch();
+                    cli.printSuccessMessage();
+                } catch (LogicException e) {
+                    cli.printError(e.getMessage());
+                }
+            }
+            @Override
+            public ParsedParameters parse(String params, ParameterParser parser) {
+                return parser.parseEmpty(params);
+            }
+        });
+        put("commitBatch", new Command("commitBatch") {
+            @Override
+            public void execute(CommandLineInterface cli, ParsedParameters params) {
+                try {
+                    cli.workbench.commitBatch();
+                    cli.printSuccessMessage();
+                } catch (LogicException e) {
+                    cli.printError(e.getMessage());
+                }
+            }
+            @Override
+            public ParsedParameters parse(String params, ParameterParser parser) {
+                return parser.parseEmpty(params);
+            }
+        });
+        put("abortBatch", new Command("abortBatch") {
+            @Override
+            public void execute(CommandLineInterface cli, ParsedParameters params) {
                 try {
-                    long partAmount = cli.getPartAmountFromString(assemblyName, partName, amountStr);
-                    cli.workbench.removePartAmountFromBOM(assemblyName, partName, partAmount);
+                    cli.workbench.abortBatch();
                     cli.printSuccessMessage();
                 } catch (LogicException e) {
-                    Terminal.printError(e.getMessage());
+                    cli.printError(e.getMessage());
                 }
             }
             @Override
-            public boolean isValid() {
-                return params.matches(Command.REMOVE_PART_REGEX);
+            public ParsedParameters parse(String params, ParameterParser parser) {
+                return parser.parseEmpty(params);
+            }
+        });
+        put("checkpoint", new Command("checkpoint") {
+            @Override
+            boolean accessesFiles() {
+                return true;
+            }
+            @Override
+            public void execute(CommandLineInterface cli, ParsedParameters params) {
+                try {
+                    cli.startCheckpoint();
+                    cli.printSuccessMessage();
+                } catch (InputException | LogicException e) {
+                    cli.printError(e.getMessage());
+                }
+            }
+            @Override
+            public ParsedParameters parse(String params, ParameterParser parser) {
+                return parser.parseEmpty(params);
+            }
+        });
+        put("checkpointStatus", new Command("checkpointStatus") {
+            @Override
+            public void execute(CommandLineInterface cli, ParsedParameters params) {
+                cli.printCheckpointStatus();
+            }
+            @Override
+            public ParsedParameters parse(String params, ParameterParser parser) {
+                return parser.parseEmpty(params);
+            }
+        });
+        put("freeze", new Command("freeze") {
+            @Override
+            public void execute(CommandLineInterface cli, ParsedParameters params) {
+                cli.workbench.freeze();
+                cli.printSuccessMessage();
+            }
+            @Override
+            public ParsedParameters parse(String params, ParameterParser parser) {
+                return parser.parseEmpty(params);
+            }
+        });
+        put("unfreeze", new Command("unfreeze") {
+            @Override
+            public void execute(CommandLineInterface cli, ParsedParameters params) {
+                cli.workbench.unfreeze();
+                cli.printSuccessMessage();
+            }
+            @Override
+            public ParsedParameters parse(String params, ParameterParser parser) {
+                return parser.parseEmpty(params);
+            }
+        });
+        put("getGraphState", new Command("getGraphState") {
+            @Override
+            public void execute(CommandLineInterface cli, ParsedParameters params) {
+                cli.printGraphState();
+            }
+            @Override
+            public ParsedParameters parse(String params, ParameterParser parser) {
+                return parser.parseEmpty(params);
+            }
+        });
+        put("stats", new Command("stats") {
+            @Override
+            public void execute(CommandLineInterface cli, ParsedParameters params) {
+                cli.printStats();
+            }
+            @Override
+            public ParsedParameters parse(String params, ParameterParser parser) {
+                return parser.parseEmpty(params);
             }
         });
         put("quit", new Command("quit") {
             @Override
-            public void execute(CommandLineInterface cli) {
+            public void execute(CommandLineInterface cli, ParsedParameters params) {
                 cli.close();
             }
             @Override
-            public boolean isValid() {
-                return params.length() == 0;
+            public ParsedParameters parse(String params, ParameterParser parser) {
+                return parser.parseEmpty(params);
             }
         });
     } };
@@ -185,4 +393,17 @@ class CommandList {
     static Command get(String instruction) {
         return COMMANDS.get(instruction);
     }
+
+    /**
+     * Gets the stats recorded for every instruction.
+     *
+     * @return the stats sorted by instruction
+     */
+    static SortedMap<String, CommandStats> getStats() {
+        SortedMap<String, CommandStats> stats = new TreeMap<>();
+        for (Map.Entry<String, Command> entry : COMMANDS.entrySet()) {
+            stats.put(entry.getKey(), entry.getValue().getStats());
+        }
+        return stats;
+    }
 }
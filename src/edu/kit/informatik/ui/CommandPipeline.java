@@ -0,0 +1,222 @@
+package edu.kit.informatik.ui;
+
+import edu.kit.informatik.Terminal;
+import edu.kit.informatik.ui.exceptions.InputException;
+import edu.kit.informatik.util.DaemonExecutors;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs a CommandLineInterface as a pipeline of a reader, a pool of parsers, an executor and a writer.
+ *
+ * The reader groups the input lines into blocks, which are parsed in parallel. The executor takes the parsed
+ * blocks in input order and executes them one after another, collecting the output of each block.
+ * The writer prints the collected output in the same order, so the output equals the one of the sequential mode,
+ * while reading, parsing and printing overlap with the execution.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+final class CommandPipeline {
+    /**
+     * The maximum amount of lines in a block, smaller blocks are passed on whenever the input would block.
+     */
+    private static final int BLOCK_SIZE = 256;
+    /**
+     * The maximum amount of blocks that have been read but not executed yet.
+     */
+    private static final int PARSED_QUEUE_CAPACITY = 64;
+    /**
+     * The maximum amount of blocks that have been executed but not printed yet.
+     */
+    private static final int OUTPUT_QUEUE_CAPACITY = 64;
+    /**
+     * Marks the end of the output.
+     */
+    private static final CollectedOutput END_OF_OUTPUT = new CollectedOutput();
+
+    private final CommandLineInterface cli;
+    private final ExecutorService parsers;
+    private final BlockingQueue<Future<ParsedBlock>> parsedBlocks;
+    private final BlockingQueue<CollectedOutput> outputs;
+
+    /**
+     * Instantiates a new CommandPipeline.
+     *
+     * @param cli the CommandLineInterface to execute the commands in
+     * @param parserCount the amount of parser threads
+     */
+    CommandPipeline(CommandLineInterface cli, int parserCount) {
+        this.cli = cli;
+        this.parsers = DaemonExecutors.newFixedThreadPool(parserCount, "pipeline-parser");
+        this.parsedBlocks = new ArrayBlockingQueue<>(PARSED_QUEUE_CAPACITY);
+        this.outputs = new ArrayBlockingQueue<>(OUTPUT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Executes all input lines until the CommandLineInterface is closed or the input ends.
+     * Like the sequential mode, the exception of the ended input is rethrown once all output has been printed.
+     */
+    void run() {
+        Thread reader = new Thread(this::read, "pipeline-reader");
+        Thread writer = new Thread(this::write, "pipeline-writer");
+        // the reader may block on input that is never going to be executed
+        reader.setDaemon(true);
+        reader.start();
+        writer.start();
+
+        RuntimeException inputFailure;
+        try {
+            inputFailure = execute();
+        } finally {
+            reader.interrupt();
+            parsers.shutdownNow();
+            finishOutput(writer);
+        }
+        if (inputFailure != null) {
+            throw inputFailure;
+        }
+    }
+
+    /**
+     * Reads the input lines, groups them into blocks and passes each block to the parsers.
+     */
+    private void read() {
+        try {
+            RuntimeException inputFailure = null;
+            while (inputFailure == null) {
+                List<String> lines = new ArrayList<>();
+                try {
+                    do {
+                        lines.add(Terminal.readLine());
+                    } while (lines.size() < BLOCK_SIZE && Terminal.hasPendingInput());
+                } catch (RuntimeException e) {
+                    inputFailure = e;
+                }
+
+                RuntimeException blockFailure = inputFailure;
+                parsedBlocks.put(parsers.submit(() -> parse(lines, blockFailure)));
+            }
+        } catch (InterruptedException | RejectedExecutionException e) {
+            // the pipeline has been stopped
+        }
+    }
+
+    /**
+     * Executes the parsed blocks in input order and passes their output to the writer.
+     *
+     * @return the exception of the ended input or null if the CommandLineInterface has been closed
+     */
+    private RuntimeException execute() {
+        try {
+            while (cli.isRunning()) {
+                ParsedBlock block = parsedBlocks.take().get();
+                CollectedOutput output = new CollectedOutput();
+
+                cli.setOutput(output);
+                try {
+                    for (int i = 0; i < block.commands.length && cli.isRunning(); i++) {
+                        if (block.commands[i] != null) {
+                            block.commands[i].execute(cli);
+                        } else {
+                            cli.printError(block.errors[i].getMessage());
+                        }
+                    }
+                } finally {
+                    cli.setOutput(OutputSink.TERMINAL);
+                }
+                outputs.put(output);
+
+                if (block.inputFailure != null && cli.isRunning()) {
+                    return block.inputFailure;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+        return null;
+    }
+
+    /**
+     * Prints the output of the executed blocks until the end of the output.
+     */
+    private void write() {
+        try {
+            for (CollectedOutput output = outputs.take(); output != END_OF_OUTPUT; output = outputs.take()) {
+                output.writeTo(OutputSink.TERMINAL);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Marks the end of the output and waits until the writer has printed everything.
+     *
+     * @param writer the writer thread
+     */
+    private void finishOutput(Thread writer) {
+        boolean interrupted = Thread.interrupted();
+        while (true) {
+            try {
+                outputs.put(END_OF_OUTPUT);
+                writer.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Parses the lines of a block. Does not access the workbench, so blocks can be parsed in parallel.
+     *
+     * @param lines the lines
+     * @param inputFailure the exception of the input ending after the lines, null if it did not end
+     * @return the parsed block
+     */
+    private static ParsedBlock parse(List<String> lines, RuntimeException inputFailure) {
+        ParsedBlock block = new ParsedBlock(lines.size(), inputFailure);
+        for (int i = 0; i < lines.size(); i++) {
+            try {
+                block.commands[i] = Command.fromString(lines.get(i));
+            } catch (InputException e) {
+                block.errors[i] = e;
+            }
+        }
+        return block;
+    }
+
+    /**
+     * The parsed lines of a block, each either a command or the error why it could not be parsed.
+     */
+    private static final class ParsedBlock {
+        private final ParsedCommand[] commands;
+        private final InputException[] errors;
+        private final RuntimeException inputFailure;
+
+        /**
+         * Instantiates a new ParsedBlock.
+         *
+         * @param size the amount of lines
+         * @param inputFailure the exception of the input ending after the lines, null if it did not end
+         */
+        private ParsedBlock(int size, RuntimeException inputFailure) {
+            this.commands = new ParsedCommand[size];
+            this.errors = new InputException[size];
+            this.inputFailure = inputFailure;
+        }
+    }
+}
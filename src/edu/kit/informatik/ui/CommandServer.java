@@ -0,0 +1,152 @@
+package edu.kit.informatik.ui;
+
+import edu.kit.informatik.Terminal;
+import edu.kit.informatik.ui.exceptions.BatchTimedOutException;
+import edu.kit.informatik.util.DaemonExecutors;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves clients connecting to a local TCP port, all sharing the workbench of a CommandLineInterface.
+ *
+ * Every client sends one command per line and receives the same lines the terminal would print,
+ * error messages are prefixed with the error prefix since they share the connection with the results.
+ * The output of a client is buffered until no further input of the client is pending.
+ * Each connection is served by its own thread, a virtual thread if the runtime provides them.
+ * Clients may not call instructions that access files, and a client that keeps a batch open
+ * without sending input is disconnected, so its batch no longer rejects the mutations of all other clients.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+final class CommandServer {
+    private static final String ERROR_PREFIX = "Error, ";
+    private static final String LISTENING_FORMAT = "listening on port %d";
+    private static final int BACKLOG = 128;
+    private static final char LINE_SEPARATOR = '\n';
+    private static final String CONNECTION_THREAD_NAME = "server-connection";
+    /**
+     * The time a client holding a batch may send no input before it is disconnected.
+     */
+    private static final long BATCH_IDLE_SECONDS = 30;
+
+    private final CommandLineInterface cli;
+
+    /**
+     * Instantiates a new CommandServer.
+     *
+     * @param cli the CommandLineInterface whose workbench the clients share
+     */
+    CommandServer(CommandLineInterface cli) {
+        this.cli = cli;
+    }
+
+    /**
+     * Accepts clients on the loopback address until the program is terminated.
+     *
+     * @param port the port to listen on, 0 for any free port
+     * @throws IOException when the port cannot be listened on
+     */
+    void run(int port) throws IOException {
+        ExecutorService connections = DaemonExecutors.newPerTaskExecutor(CONNECTION_THREAD_NAME);
+        try (ServerSocket serverSocket = new ServerSocket(port, BACKLOG, InetAddress.getLoopbackAddress())) {
+            cli.printLine(String.format(LISTENING_FORMAT, serverSocket.getLocalPort()));
+            Terminal.flush();
+
+            while (true) {
+                Socket socket = serverSocket.accept();
+                connections.execute(() -> serve(socket));
+            }
+        } finally {
+            connections.shutdownNow();
+        }
+    }
+
+    /**
+     * Executes the commands of a client until it quits or closes the connection.
+     *
+     * @param socket the connection to the client
+     */
+    private void serve(Socket socket) {
+        try (Socket client = socket;
+             BufferedReader reader = new BufferedReader(
+                     new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter writer = new PrintWriter(new BufferedWriter(
+                     new OutputStreamWriter(client.getOutputStream(), StandardCharsets.UTF_8)))) {
+
+            CommandLineInterface session = cli.openSession(new ConnectionOutput(writer));
+            try {
+                String line;
+                while (session.isRunning() && (line = readLine(client, reader, session)) != null) {
+                    session.execute(line);
+                    if (!reader.ready()) {
+                        writer.flush();
+                    }
+                }
+            } catch (SocketTimeoutException e) {
+                session.printError(new BatchTimedOutException(BATCH_IDLE_SECONDS).getMessage());
+                writer.flush();
+            } finally {
+                // before the connection is closed, so the next command of the client finds the batch discarded
+                session.closeSession();
+            }
+        } catch (IOException e) {
+            // the client has closed the connection
+        }
+    }
+
+    /**
+     * Reads the next line of a client, waiting at most the batch idle time while the client holds a batch.
+     *
+     * @param client the connection to the client
+     * @param reader the reader of the connection
+     * @param session the session of the client
+     * @return the line or null if the client has closed the connection
+     * @throws SocketTimeoutException when the client holds a batch and has sent no line within the batch idle time
+     * @throws IOException when the connection fails
+     */
+    private static String readLine(Socket client, BufferedReader reader, CommandLineInterface session)
+            throws IOException {
+        client.setSoTimeout(session.workbench.ownsBatch() ? (int) TimeUnit.SECONDS.toMillis(BATCH_IDLE_SECONDS) : 0);
+        return reader.readLine();
+    }
+
+    /**
+     * Prints the results and errors of a session to its connection.
+     */
+    private static final class ConnectionOutput implements OutputSink {
+        private final PrintWriter writer;
+
+        /**
+         * Instantiates a new ConnectionOutput.
+         *
+         * @param writer the buffered writer of the connection
+         */
+        private ConnectionOutput(PrintWriter writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void printLine(String line) {
+            writer.print(line);
+            writer.print(LINE_SEPARATOR);
+        }
+
+        @Override
+        public void printError(String errorMessage) {
+            printLine(ERROR_PREFIX + errorMessage);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package edu.kit.informatik.ui;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The calls, errors and latencies recorded for an instruction, split into the phases
+ * of parsing the line, executing the command and printing its output.
+ *
+ * Recording neither allocates nor locks, so it is done for every line of every session.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+final class CommandStats {
+    /**
+     * The stats of all lines whose instruction is unknown.
+     */
+    static final CommandStats INVALID_INSTRUCTION = new CommandStats();
+
+    private static final String INVALID_INSTRUCTION_NAME = "<invalid>";
+    private static final String THROUGHPUT_FORMAT = "%d commands in %.1f s, %.1f commands/s";
+    private static final String INSTRUCTION_FORMAT = "%s: %d calls, %d errors, parse %s, execute %s, print %s";
+    private static final String LATENCIES_FORMAT = "%.1f/%.1f/%.1f us";
+    private static final double NANOS_PER_MICRO = 1000;
+    private static final double NANOS_PER_SECOND = 1000000000;
+    private static final double MEDIAN = 0.5;
+    private static final double HIGH_PERCENTILE = 0.99;
+    /**
+     * The time all stats are recorded since, throughput is given relative to it.
+     */
+    private static final long START_NANOS = System.nanoTime();
+
+    private final LongAdder calls;
+    private final LongAdder errors;
+    private final LatencyHistogram parseLatencies;
+    private final LatencyHistogram executeLatencies;
+    private final LatencyHistogram printLatencies;
+
+    /**
+     * Instantiates a new CommandStats without any recorded calls.
+     */
+    CommandStats() {
+        this.calls = new LongAdder();
+        this.errors = new LongAdder();
+        this.parseLatencies = new LatencyHistogram();
+        this.executeLatencies = new LatencyHistogram();
+        this.printLatencies = new LatencyHistogram();
+    }
+
+    /**
+     * Records a parsed line, which counts as a call of the instruction.
+     *
+     * @param nanos the time the line took to parse in nanoseconds
+     * @param failed whether the line could not be parsed, which counts as error
+     */
+    void recordParse(long nanos, boolean failed) {
+        calls.increment();
+        parseLatencies.record(nanos);
+        if (failed) {
+            errors.increment();
+        }
+    }
+
+    /**
+     * Records the execution of a parsed line.
+     *
+     * @param executeNanos the time the command took to execute without printing in nanoseconds
+     * @param printNanos the time the command took to print its output in nanoseconds
+     * @param failed whether the command printed an error
+     */
+    void recordExecution(long executeNanos, long printNanos, boolean failed) {
+        executeLatencies.record(executeNanos);
+        printLatencies.record(printNanos);
+        if (failed) {
+            errors.increment();
+        }
+    }
+
+    /**
+     * Formats the stats of all instructions that have been called, preceded by the overall throughput.
+     *
+     * @param statsByInstruction the stats of every known instruction, sorted by the instruction
+     * @return the lines of the report
+     */
+    static List<String> formatReport(Map<String, CommandStats> statsByInstruction) {
+        List<String> lines = new ArrayList<>();
+        long totalCalls = INVALID_INSTRUCTION.calls.sum();
+        for (CommandStats stats : statsByInstruction.values()) {
+            totalCalls += stats.calls.sum();
+        }
+        double seconds = (System.nanoTime() - START_NANOS) / NANOS_PER_SECOND;
+        lines.add(String.format(Locale.ROOT, THROUGHPUT_FORMAT, totalCalls, seconds, totalCalls / seconds));
+
+        for (Map.Entry<String, CommandStats> entry : statsByInstruction.entrySet()) {
+            entry.getValue().formatTo(entry.getKey(), lines);
+        }
+        INVALID_INSTRUCTION.formatTo(INVALID_INSTRUCTION_NAME, lines);
+        return lines;
+    }
+
+    /**
+     * Formats the stats if the instruction has been called.
+     *
+     * @param instruction the instruction
+     * @param lines the lines of the report to add the formatted stats to
+     */
+    private void formatTo(String instruction, List<String> lines) {
+        long callCount = calls.sum();
+        if (callCount > 0) {
+            lines.add(String.format(Locale.ROOT, INSTRUCTION_FORMAT, instruction, callCount, errors.sum(),
+                    formatLatencies(parseLatencies.snapshot()), formatLatencies(executeLatencies.snapshot()),
+                    formatLatencies(printLatencies.snapshot())));
+        }
+    }
+
+    /**
+     * Formats the median, the 99th percentile and the maximum of latencies.
+     *
+     * @param latencies the latencies
+     * @return the formatted latencies in microseconds
+     */
+    private static String formatLatencies(LatencyHistogram.Snapshot latencies) {
+        return String.format(Locale.ROOT, LATENCIES_FORMAT, latencies.getPercentile(MEDIAN) / NANOS_PER_MICRO,
+                latencies.getPercentile(HIGH_PERCENTILE) / NANOS_PER_MICRO, latencies.getMax() / NANOS_PER_MICRO);
+    }
+}
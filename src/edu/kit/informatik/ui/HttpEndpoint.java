@@ -0,0 +1,362 @@
+package edu.kit.informatik.ui;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import edu.kit.informatik.logic.AssemblyType;
+import edu.kit.informatik.logic.Workbench;
+import edu.kit.informatik.logic.exceptions.AssemblyNotExistingException;
+import edu.kit.informatik.logic.exceptions.LogicException;
+import edu.kit.informatik.logic.exceptions.PartUnknownException;
+import edu.kit.informatik.ui.exceptions.InputException;
+import edu.kit.informatik.ui.exceptions.InvalidParametersException;
+import edu.kit.informatik.util.DaemonExecutors;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.Map.Entry;
+
+/**
+ * Answers queries and mutations of the product structure as JSON over HTTP on a local port.
+ *
+ * GET /assemblies/name returns the direct parts of a BOM, GET /assemblies/name/components and
+ * GET /assemblies/name/assemblies its exploded components and BOMs, sorted like the terminal prints them.
+ * PUT /assemblies/name with the part entries as body adds a BOM, DELETE /assemblies/name removes it
+ * and POST /assemblies/name/parts with +amount:name or -amount:name as body adds or removes a part.
+ *
+ * Every query result carries an ETag consisting of an ID of the endpoint and the revision of the workbench,
+ * so a query repeated with If-None-Match is answered with 304 without touching the product structure
+ * as long as nothing has changed. Results are written straight to the response body.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+final class HttpEndpoint {
+    private static final String CONTEXT_PATH = "/assemblies/";
+    private static final String COMPONENTS_VIEW = "components";
+    private static final String ASSEMBLIES_VIEW = "assemblies";
+    private static final String PARTS_VIEW = "parts";
+    private static final String LISTENING_FORMAT = "http endpoint listening on port %d";
+    private static final String ASSEMBLY_BODY_SYNTAX = "<amount1>:<name1>;<amount2>:<name2>;...;<amountn>:<namen>";
+    private static final String PART_CHANGE_BODY_SYNTAX = "+<amount>:<name> or -<amount>:<name>";
+    private static final String UNKNOWN_RESOURCE_FORMAT = "unknown resource: %s";
+    private static final String METHOD_NOT_ALLOWED_FORMAT = "the method %s is not allowed for %s";
+    private static final String CONTENT_TYPE = "application/json; charset=utf-8";
+    private static final String CONNECTION_THREAD_NAME = "http-connection";
+    private static final int BACKLOG = 128;
+
+    private static final int STATUS_OK = 200;
+    private static final int STATUS_NOT_MODIFIED = 304;
+    private static final int STATUS_BAD_REQUEST = 400;
+    private static final int STATUS_NOT_FOUND = 404;
+    private static final int STATUS_METHOD_NOT_ALLOWED = 405;
+    private static final int STATUS_CONFLICT = 409;
+    /**
+     * Makes the response body chunked, so it can be written before its length is known.
+     */
+    private static final long CHUNKED_LENGTH = 0;
+    private static final long NO_BODY_LENGTH = -1;
+
+    private final CommandLineInterface cli;
+    private final Workbench workbench;
+    /**
+     * Distinguishes the ETags of this endpoint from the ones of earlier runs, whose revisions started at 0 too.
+     */
+    private final String tagPrefix;
+
+    /**
+     * Instantiates a new HttpEndpoint.
+     *
+     * @param cli the CommandLineInterface whose workbench is queried and altered
+     */
+    HttpEndpoint(CommandLineInterface cli) {
+        this.cli = cli;
+        this.workbench = cli.workbench;
+        this.tagPrefix = Long.toHexString(new Random().nextLong()) + "-";
+    }
+
+    /**
+     * Starts answering requests on the loopback address in the background.
+     *
+     * @param port the port to listen on, 0 for any free port
+     * @throws IOException when the port cannot be listened on
+     */
+    void start(int port) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port),
+                                              BACKLOG);
+        server.createContext(CONTEXT_PATH, this::handle);
+        server.setExecutor(DaemonExecutors.newPerTaskExecutor(CONNECTION_THREAD_NAME));
+        server.start();
+        cli.printLine(String.format(LISTENING_FORMAT, server.getAddress().getPort()));
+    }
+
+    /**
+     * Answers a request and reports its errors as JSON with a matching status code.
+     *
+     * @param exchange the request and its response
+     * @throws IOException when the response cannot be written
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            String[] segments = path.substring(CONTEXT_PATH.length()).split("/", -1);
+            String view = segments.length > 1 ? segments[1] : null;
+
+            if (segments.length > 2 || new ParameterParser().parseName(segments[0]) == null) {
+                sendError(exchange, STATUS_NOT_FOUND, String.format(UNKNOWN_RESOURCE_FORMAT, path));
+                return;
+            }
+            try {
+                route(exchange, segments[0], view);
+            } catch (InputException e) {
+                sendError(exchange, STATUS_BAD_REQUEST, e.getMessage());
+            } catch (AssemblyNotExistingException | PartUnknownException e) {
+                sendError(exchange, STATUS_NOT_FOUND, e.getMessage());
+            } catch (LogicException e) {
+                sendError(exchange, STATUS_CONFLICT, e.getMessage());
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Passes a request to the handler of its method and resource.
+     *
+     * @param exchange the request and its response
+     * @param name the name of the assembly
+     * @param view the view of the assembly, null for the assembly itself
+     * @throws IOException when the response cannot be written
+     * @throws InputException when the request body is invalid
+     * @throws LogicException when the query or mutation fails
+     */
+    private void route(HttpExchange exchange, String name, String view)
+            throws IOException, InputException, LogicException {
+        String method = exchange.getRequestMethod();
+
+        if (view == null && method.equals("GET")) {
+            sendQueryResult(exchange, name, null);
+        } else if ((COMPONENTS_VIEW.equals(view) || ASSEMBLIES_VIEW.equals(view)) && method.equals("GET")) {
+            sendQueryResult(exchange, name, view);
+        } else if (view == null && method.equals("PUT")) {
+            ParsedParameters params = new ParameterParser().parseAssembly(
+                    name + CommandLineInterface.ASSEMBLY_NAME_SEPARATOR + readBody(exchange));
+            if (params == null) {
+                throw new InvalidParametersException(ASSEMBLY_BODY_SYNTAX);
+            }
+            cli.addAssemblyFromParameters(params);
+            sendSuccess(exchange);
+        } else if (view == null && method.equals("DELETE")) {
+            workbench.removeBOM(name);
+            sendSuccess(exchange);
+        } else if (PARTS_VIEW.equals(view) && method.equals("POST")) {
+            changePart(name, readBody(exchange));
+            sendSuccess(exchange);
+        } else if (view == null || COMPONENTS_VIEW.equals(view) || ASSEMBLIES_VIEW.equals(view)
+                || PARTS_VIEW.equals(view)) {
+            sendError(exchange, STATUS_METHOD_NOT_ALLOWED,
+                      String.format(METHOD_NOT_ALLOWED_FORMAT, method, exchange.getRequestURI().getPath()));
+        } else {
+            sendError(exchange, STATUS_NOT_FOUND,
+                      String.format(UNKNOWN_RESOURCE_FORMAT, exchange.getRequestURI().getPath()));
+        }
+    }
+
+    /**
+     * Adds or removes an amount of a part, depending on the operator the body starts with.
+     *
+     * @param name the name of the BOM
+     * @param body the request body
+     * @throws InputException when the body is invalid
+     * @throws LogicException when the mutation fails
+     */
+    private void changePart(String name, String body) throws InputException, LogicException {
+        char operator = body.isEmpty() ? ' ' : body.charAt(0);
+        ParsedParameters params = null;
+        if (operator == CommandLineInterface.PART_ADDITION_OPERATOR
+                || operator == CommandLineInterface.PART_REMOVAL_OPERATOR) {
+            params = new ParameterParser().parsePartChange(name + body, operator);
+        }
+        if (params == null) {
+            throw new InvalidParametersException(PART_CHANGE_BODY_SYNTAX);
+        }
+
+        if (operator == CommandLineInterface.PART_ADDITION_OPERATOR) {
+            workbench.addPartAmountToBOM(name, params.getPartName(0), params.getPartAmount(0));
+        } else {
+            workbench.removePartAmountFromBOM(name, params.getPartName(0), params.getPartAmount(0));
+        }
+    }
+
+    /**
+     * Answers a query unless the client already has the result of the current revision.
+     * The revision is read before the query, so a tag never claims a newer state than the result it belongs to.
+     *
+     * @param exchange the request and its response
+     * @param name the name of the assembly
+     * @param view the exploded view, null for the direct parts
+     * @throws IOException when the response cannot be written
+     * @throws LogicException when the assembly does not exist
+     */
+    private void sendQueryResult(HttpExchange exchange, String name, String view) throws IOException, LogicException {
+        String tag = "\"" + tagPrefix + workbench.getRevision() + "\"";
+        if (isTagMatched(exchange.getRequestHeaders().getFirst("If-None-Match"), tag)) {
+            exchange.getResponseHeaders().set("ETag", tag);
+            exchange.sendResponseHeaders(STATUS_NOT_MODIFIED, NO_BODY_LENGTH);
+            return;
+        }
+
+        String type;
+        String listName;
+        List<Entry<String, Long>> entries;
+        if (view == null && workbench.hasComponent(name)) {
+            type = CommandLineInterface.IS_COMPONENT_STRING;
+            listName = null;
+            entries = Collections.emptyList();
+        } else if (view == null) {
+            type = AssemblyType.BOM.name();
+            listName = PARTS_VIEW;
+            entries = new ArrayList<>(workbench.getPartEntriesOf(name));
+            entries.sort(CommandLineInterface.COMPARATOR_KEY_ASC);
+        } else {
+            AssemblyType assemblyType = view.equals(COMPONENTS_VIEW) ? AssemblyType.COMPONENT : AssemblyType.BOM;
+            type = AssemblyType.BOM.name();
+            listName = view;
+            entries = new ArrayList<>(workbench.getPartCountsOf(name, assemblyType).entrySet());
+            entries.sort(CommandLineInterface.COMPARATOR_VALUE_DESC
+                    .thenComparing(CommandLineInterface.COMPARATOR_KEY_ASC));
+        }
+
+        exchange.getResponseHeaders().set("ETag", tag);
+        try (Writer writer = openBody(exchange, STATUS_OK)) {
+            writer.write("{\"name\":\"");
+            writer.write(name);
+            writer.write("\",\"type\":\"");
+            writer.write(type);
+            writer.write('"');
+            if (listName != null) {
+                writer.write(",\"");
+                writer.write(listName);
+                writer.write("\":[");
+                for (int i = 0; i < entries.size(); i++) {
+                    writer.write(i == 0 ? "{\"name\":\"" : ",{\"name\":\"");
+                    writer.write(entries.get(i).getKey());
+                    writer.write("\",\"amount\":");
+                    writer.write(Long.toString(entries.get(i).getValue()));
+                    writer.write('}');
+                }
+                writer.write(']');
+            }
+            writer.write('}');
+        }
+    }
+
+    /**
+     * Determines whether the If-None-Match header of a request contains the current tag.
+     *
+     * @param ifNoneMatch the header, null if the request has none
+     * @param tag the current tag
+     * @return whether the client already has the current result
+     */
+    private static boolean isTagMatched(String ifNoneMatch, String tag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            if (candidate.trim().equals(tag) || candidate.trim().equals("*")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Sends the success message of a mutation.
+     *
+     * @param exchange the request and its response
+     * @throws IOException when the response cannot be written
+     */
+    private static void sendSuccess(HttpExchange exchange) throws IOException {
+        try (Writer writer = openBody(exchange, STATUS_OK)) {
+            writer.write("{\"result\":\"OK\"}");
+        }
+    }
+
+    /**
+     * Sends an error message.
+     *
+     * @param exchange the request and its response
+     * @param status the status code
+     * @param message the error message
+     * @throws IOException when the response cannot be written
+     */
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        try (Writer writer = openBody(exchange, status)) {
+            writer.write("{\"error\":\"");
+            writeEscaped(writer, message);
+            writer.write("\"}");
+        }
+    }
+
+    /**
+     * Sends the response headers and opens the response body.
+     *
+     * @param exchange the request and its response
+     * @param status the status code
+     * @return a buffered writer of the response body
+     * @throws IOException when the response cannot be written
+     */
+    private static Writer openBody(HttpExchange exchange, int status) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+        exchange.sendResponseHeaders(status, CHUNKED_LENGTH);
+        return new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads the request body without a trailing line break.
+     *
+     * @param exchange the request and its response
+     * @return the body
+     * @throws IOException when the request cannot be read
+     */
+    private static String readBody(HttpExchange exchange) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (InputStream input = exchange.getRequestBody()) {
+            byte[] buffer = new byte[1 << 12];
+            for (int read = input.read(buffer); read >= 0; read = input.read(buffer)) {
+                body.write(buffer, 0, read);
+            }
+        }
+        String text = new String(body.toByteArray(), StandardCharsets.UTF_8);
+        return text.endsWith("\r\n") ? text.substring(0, text.length() - 2)
+                : text.endsWith("\n") ? text.substring(0, text.length() - 1) : text;
+    }
+
+    /**
+     * Writes a text as content of a JSON string.
+     *
+     * @param writer the writer
+     * @param text the text
+     * @throws IOException when the text cannot be written
+     */
+    private static void writeEscaped(Writer writer, String text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                writer.write('\\');
+                writer.write(c);
+            } else if (c < ' ') {
+                writer.write(String.format("\\u%04x", (int) c));
+            } else {
+                writer.write(c);
+            }
+        }
+    }
+}
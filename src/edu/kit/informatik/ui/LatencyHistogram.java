@@ -0,0 +1,156 @@
+package edu.kit.informatik.ui;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Records latencies in fixed log-linear buckets without allocating or locking.
+ *
+ * Every power of two is split into a fixed amount of linear sub-buckets, so each latency is recorded
+ * with a relative error of at most 1/8 from 1 ns up to about 18 minutes; longer latencies end up in the last bucket.
+ * The buckets are striped by thread, so concurrent sessions rarely increment the same counter.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    /**
+     * Latencies below 2^40 ns, about 18 minutes, are recorded precisely.
+     */
+    private static final int EXPONENT_MAX = 40;
+    private static final int BUCKET_COUNT = (EXPONENT_MAX - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+    /**
+     * The slot following the buckets of a stripe, holding the highest latency of the stripe.
+     */
+    private static final int MAX_SLOT = BUCKET_COUNT;
+    private static final int STRIPE_LENGTH = BUCKET_COUNT + 1;
+    private static final int STRIPE_COUNT_MAX = 8;
+    private static final int STRIPE_MASK = Integer.highestOneBit(
+            Math.min(Runtime.getRuntime().availableProcessors(), STRIPE_COUNT_MAX) * 2 - 1) - 1;
+
+    private final AtomicLongArray counts;
+
+    /**
+     * Instantiates a new, empty LatencyHistogram.
+     */
+    LatencyHistogram() {
+        this.counts = new AtomicLongArray((STRIPE_MASK + 1) * STRIPE_LENGTH);
+    }
+
+    /**
+     * Records a latency.
+     *
+     * @param nanos the latency in nanoseconds
+     */
+    void record(long nanos) {
+        long latency = Math.max(nanos, 0);
+        int offset = ((int) Thread.currentThread().getId() & STRIPE_MASK) * STRIPE_LENGTH;
+        counts.incrementAndGet(offset + getBucket(latency));
+
+        long max = counts.get(offset + MAX_SLOT);
+        while (latency > max && !counts.compareAndSet(offset + MAX_SLOT, max, latency)) {
+            max = counts.get(offset + MAX_SLOT);
+        }
+    }
+
+    /**
+     * Sums up the stripes into a snapshot of the latencies recorded so far.
+     *
+     * @return the snapshot
+     */
+    Snapshot snapshot() {
+        long[] buckets = new long[BUCKET_COUNT];
+        long max = 0;
+        for (int offset = 0; offset < counts.length(); offset += STRIPE_LENGTH) {
+            for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+                buckets[bucket] += counts.get(offset + bucket);
+            }
+            max = Math.max(max, counts.get(offset + MAX_SLOT));
+        }
+        return new Snapshot(buckets, max);
+    }
+
+    /**
+     * Gets the bucket of a latency.
+     *
+     * @param latency the non-negative latency in nanoseconds
+     * @return the index of the bucket
+     */
+    private static int getBucket(long latency) {
+        if (latency < SUB_BUCKET_COUNT) {
+            return (int) latency;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(latency);
+        int subBucket = (int) (latency >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+        return Math.min((exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket, BUCKET_COUNT - 1);
+    }
+
+    /**
+     * Gets the highest latency belonging to a bucket.
+     *
+     * @param bucket the index of the bucket
+     * @return the latency in nanoseconds
+     */
+    private static long getBucketLimit(int bucket) {
+        if (bucket < SUB_BUCKET_COUNT) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+        long subBucket = bucket % SUB_BUCKET_COUNT;
+        return ((SUB_BUCKET_COUNT + subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+
+    /**
+     * The latencies recorded by a histogram up to a point in time.
+     */
+    static final class Snapshot {
+        private final long[] buckets;
+        private final long count;
+        private final long max;
+
+        /**
+         * Instantiates a new Snapshot.
+         *
+         * @param buckets the counts of the buckets
+         * @param max the highest latency in nanoseconds
+         */
+        private Snapshot(long[] buckets, long max) {
+            long bucketSum = 0;
+            for (long bucketCount : buckets) {
+                bucketSum += bucketCount;
+            }
+            this.buckets = buckets;
+            this.count = bucketSum;
+            this.max = max;
+        }
+
+        /**
+         * Gets the highest recorded latency.
+         *
+         * @return the latency in nanoseconds, 0 if none has been recorded
+         */
+        long getMax() {
+            return max;
+        }
+
+        /**
+         * Gets the latency below or at which the given share of latencies lie,
+         * given as the upper limit of its bucket but never above the highest recorded latency.
+         *
+         * @param percentile the share between 0 and 1
+         * @return the latency in nanoseconds, 0 if none has been recorded
+         */
+        long getPercentile(double percentile) {
+            long rank = Math.max((long) Math.ceil(percentile * count), 1);
+            long seen = 0;
+            for (int bucket = 0; bucket < buckets.length; bucket++) {
+                seen += buckets[bucket];
+                if (seen >= rank) {
+                    return Math.min(getBucketLimit(bucket), max);
+                }
+            }
+            return 0;
+        }
+    }
+}
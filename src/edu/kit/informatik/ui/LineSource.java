@@ -0,0 +1,23 @@
+package edu.kit.informatik.ui;
+
+import edu.kit.informatik.Terminal;
+
+/**
+ * The source a CommandLineInterface reads its input lines from.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+public interface LineSource {
+    /**
+     * Reads from the input of the terminal.
+     */
+    LineSource TERMINAL = Terminal::readLine;
+
+    /**
+     * Reads the next input line.
+     *
+     * @return the line, null if the input has ended
+     */
+    String readLine();
+}
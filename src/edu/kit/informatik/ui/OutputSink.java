@@ -0,0 +1,40 @@
+package edu.kit.informatik.ui;
+
+import edu.kit.informatik.Terminal;
+
+/**
+ * The destination a CommandLineInterface prints its results and errors to.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+public interface OutputSink {
+    /**
+     * Prints to the output and error output of the terminal.
+     */
+    OutputSink TERMINAL = new OutputSink() {
+        @Override
+        public void printLine(String line) {
+            Terminal.printLine(line);
+        }
+
+        @Override
+        public void printError(String errorMessage) {
+            Terminal.printError(errorMessage);
+        }
+    };
+
+    /**
+     * Prints a line to the output.
+     *
+     * @param line the line
+     */
+    void printLine(String line);
+
+    /**
+     * Prints an error message to the error output.
+     *
+     * @param errorMessage the error message
+     */
+    void printError(String errorMessage);
+}
@@ -0,0 +1,275 @@
+package edu.kit.informatik.ui;
+
+import java.util.Arrays;
+
+/**
+ * Validates the parameters of a command and extracts the assembly name and the part entries in a single pass.
+ *
+ * A name is a non-empty alphabetical string, an amount a natural number without leading zeros
+ * and a part entry an amount followed by the part amount separator and a name.
+ * The parser is reused for every parameter string and is not thread-safe,
+ * the extracted values are returned as immutable ParsedParameters.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+final class ParameterParser {
+    private static final int INITIAL_CAPACITY = 8;
+    /**
+     * Marks an amount that does not fit into a long.
+     */
+    private static final long AMOUNT_OVERFLOW = -1;
+    private static final char INSTRUCTION_SEPARATOR = ' ';
+
+    private String input;
+    private int position;
+
+    private String name;
+    private int partCount;
+    private String[] partNames;
+    private long[] partAmounts;
+    private int[] amountStarts;
+    private int[] amountEnds;
+
+    /**
+     * Instantiates a new ParameterParser.
+     */
+    ParameterParser() {
+        partNames = new String[INITIAL_CAPACITY];
+        partAmounts = new long[INITIAL_CAPACITY];
+        amountStarts = new int[INITIAL_CAPACITY];
+        amountEnds = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Parses parameters that must be empty.
+     *
+     * @param params the parameters
+     * @return the parsed parameters or null if they are invalid
+     */
+    ParsedParameters parseEmpty(String params) {
+        return params.isEmpty() ? new ParsedParameters(params) : null;
+    }
+
+    /**
+     * Parses parameters consisting of any non-empty text, e.g. a path.
+     *
+     * @param params the parameters
+     * @return the parsed parameters or null if they are invalid
+     */
+    ParsedParameters parseText(String params) {
+        return params.isEmpty() ? null : new ParsedParameters(params);
+    }
+
+    /**
+     * Parses parameters consisting of a single name.
+     *
+     * @param params the parameters
+     * @return the parsed parameters or null if they are invalid
+     */
+    ParsedParameters parseName(String params) {
+        reset(params);
+        return readName() && isAtEnd() ? toParameters() : null;
+    }
+
+    /**
+     * Parses the string representation of an assembly: a name, the assembly name separator
+     * and part entries separated by the assembly part separator.
+     *
+     * @param params the parameters
+     * @return the parsed parameters or null if they are invalid
+     */
+    ParsedParameters parseAssembly(String params) {
+        reset(params);
+        if (!readName() || !readChar(CommandLineInterface.ASSEMBLY_NAME_SEPARATOR) || !readPartEntry()) {
+            return null;
+        }
+        while (readChar(CommandLineInterface.ASSEMBLY_PART_SEPARATOR)) {
+            if (!readPartEntry()) {
+                return null;
+            }
+        }
+        return isAtEnd() ? toParameters() : null;
+    }
+
+    /**
+     * Parses a name, the given operator and a single part entry.
+     *
+     * @param params the parameters
+     * @param operator the character separating the name from the part entry
+     * @return the parsed parameters or null if they are invalid
+     */
+    ParsedParameters parsePartChange(String params, char operator) {
+        reset(params);
+        return readName() && readChar(operator) && readPartEntry() && isAtEnd() ? toParameters() : null;
+    }
+
+    /**
+     * Parses part entries separated by the assembly part separator without a name.
+     *
+     * @param params the parameters
+     * @return the parsed parameters or null if they are invalid
+     */
+    ParsedParameters parsePartEntries(String params) {
+        reset(params);
+        if (!readPartEntry()) {
+            return null;
+        }
+        while (readChar(CommandLineInterface.ASSEMBLY_PART_SEPARATOR)) {
+            if (!readPartEntry()) {
+                return null;
+            }
+        }
+        return isAtEnd() ? toParameters() : null;
+    }
+
+    /**
+     * Parses an explainable query instruction followed by the instruction separator and a name.
+     * The text of the parsed parameters is the explained instruction.
+     *
+     * @param params the parameters
+     * @return the parsed parameters or null if they are invalid
+     */
+    ParsedParameters parseExplainedQuery(String params) {
+        reset(params);
+        String instruction = readAlphabetical();
+        if (!CommandLineInterface.GET_COMPONENTS_INSTRUCTION.equals(instruction)
+                && !CommandLineInterface.GET_ASSEMBLIES_INSTRUCTION.equals(instruction)) {
+            return null;
+        }
+        if (!readChar(INSTRUCTION_SEPARATOR) || !readName() || !isAtEnd()) {
+            return null;
+        }
+        return new ParsedParameters(instruction, name, new String[0], new long[0], new String[0]);
+    }
+
+    /**
+     * Copies the successfully parsed name and part entries into immutable parameters.
+     *
+     * @return the parsed parameters
+     */
+    private ParsedParameters toParameters() {
+        String[] overflowedAmounts = new String[partCount];
+        for (int i = 0; i < partCount; i++) {
+            if (partAmounts[i] == AMOUNT_OVERFLOW) {
+                overflowedAmounts[i] = input.substring(amountStarts[i], amountEnds[i]);
+            }
+        }
+        return new ParsedParameters(input, name, Arrays.copyOf(partNames, partCount),
+                                    Arrays.copyOf(partAmounts, partCount), overflowedAmounts);
+    }
+
+    /**
+     * Prepares the parser for new parameters.
+     *
+     * @param params the parameters
+     */
+    private void reset(String params) {
+        input = params;
+        position = 0;
+        name = null;
+        partCount = 0;
+    }
+
+    /**
+     * Determines whether all characters have been read.
+     *
+     * @return whether the end of the input is reached
+     */
+    private boolean isAtEnd() {
+        return position == input.length();
+    }
+
+    /**
+     * Reads the given character if it is the next one.
+     *
+     * @param expected the expected character
+     * @return whether the character has been read
+     */
+    private boolean readChar(char expected) {
+        if (!isAtEnd() && input.charAt(position) == expected) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Reads a name and stores it as name of the parameters.
+     *
+     * @return whether a name has been read
+     */
+    private boolean readName() {
+        String readName = readAlphabetical();
+        name = readName;
+        return readName != null;
+    }
+
+    /**
+     * Reads an amount, the part amount separator and a name and stores them as new part entry.
+     *
+     * @return whether a part entry has been read
+     */
+    private boolean readPartEntry() {
+        if (partCount == partNames.length) {
+            int capacity = partCount * 2;
+            partNames = Arrays.copyOf(partNames, capacity);
+            partAmounts = Arrays.copyOf(partAmounts, capacity);
+            amountStarts = Arrays.copyOf(amountStarts, capacity);
+            amountEnds = Arrays.copyOf(amountEnds, capacity);
+        }
+
+        amountStarts[partCount] = position;
+        if (isAtEnd() || input.charAt(position) < '1' || input.charAt(position) > '9') {
+            return false;
+        }
+
+        long amount = 0;
+        while (!isAtEnd() && input.charAt(position) >= '0' && input.charAt(position) <= '9') {
+            int digit = input.charAt(position) - '0';
+            if (amount == AMOUNT_OVERFLOW || amount > (Long.MAX_VALUE - digit) / 10) {
+                amount = AMOUNT_OVERFLOW;
+            } else {
+                amount = amount * 10 + digit;
+            }
+            position++;
+        }
+        amountEnds[partCount] = position;
+
+        if (!readChar(CommandLineInterface.PART_AMOUNT_SEPARATOR)) {
+            return false;
+        }
+        String partName = readAlphabetical();
+        if (partName == null) {
+            return false;
+        }
+
+        partNames[partCount] = partName;
+        partAmounts[partCount] = amount;
+        partCount++;
+        return true;
+    }
+
+    /**
+     * Reads a non-empty sequence of alphabetical characters.
+     *
+     * @return the sequence or null if the next character is not alphabetical
+     */
+    private String readAlphabetical() {
+        int start = position;
+        while (!isAtEnd() && isAlphabetical(input.charAt(position))) {
+            position++;
+        }
+        return position > start ? input.substring(start, position) : null;
+    }
+
+    /**
+     * Determines whether a character is an ASCII letter.
+     *
+     * @param c the character
+     * @return whether it is alphabetical
+     */
+    private static boolean isAlphabetical(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+}
@@ -0,0 +1,71 @@
+package edu.kit.informatik.ui;
+
+/**
+ * An immutable parsed input line: the stateless command of its instruction and its parsed parameters.
+ *
+ * Parsing a line does not alter any shared state, so lines can be parsed on one thread
+ * and executed on another.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+final class ParsedCommand {
+    private final Command command;
+    private final ParsedParameters parameters;
+    private final int parameterSize;
+
+    /**
+     * Instantiates a new ParsedCommand.
+     *
+     * @param command the command of the instruction
+     * @param parameters the parsed parameters
+     * @param parameterSize the length of the unparsed parameters
+     */
+    ParsedCommand(Command command, ParsedParameters parameters, int parameterSize) {
+        this.command = command;
+        this.parameters = parameters;
+        this.parameterSize = parameterSize;
+    }
+
+    /**
+     * Gets the command of the instruction.
+     *
+     * @return the command
+     */
+    Command getCommand() {
+        return command;
+    }
+
+    /**
+     * Gets the parsed parameters.
+     *
+     * @return the parameters
+     */
+    ParsedParameters getParameters() {
+        return parameters;
+    }
+
+    /**
+     * Executes the command with the parsed parameters, records its latency
+     * and reports it to the flight recorder if a recording has enabled the event.
+     *
+     * @param cli the CommandLineInterface in whose context the command is going to be executed
+     */
+    void execute(CommandLineInterface cli) {
+        CommandEvent event = new CommandEvent();
+        event.begin();
+        long start = System.nanoTime();
+        cli.resetPrintMeasurement();
+        command.execute(cli, parameters);
+        long nanos = System.nanoTime() - start;
+
+        long printNanos = cli.getPrintNanos();
+        command.getStats().recordExecution(nanos - printNanos, printNanos, cli.hasPrintedError());
+        if (event.shouldCommit()) {
+            event.instruction = command.getInstruction();
+            event.parameterSize = parameterSize;
+            event.outcome = cli.hasPrintedError() ? CommandEvent.OUTCOME_ERROR : CommandEvent.OUTCOME_SUCCESS;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package edu.kit.informatik.ui;
+
+import edu.kit.informatik.logic.exceptions.InvalidDemandException;
+import edu.kit.informatik.logic.exceptions.InvalidPartAmountException;
+
+/**
+ * The immutable result of parsing the parameters of a command: the parameter text
+ * and, depending on the syntax, the assembly name and the part entries extracted from it.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+final class ParsedParameters {
+    private static final String[] NO_PART_NAMES = new String[0];
+    private static final long[] NO_PART_AMOUNTS = new long[0];
+
+    private final String text;
+    private final String name;
+    private final String[] partNames;
+    private final long[] partAmounts;
+    /**
+     * The text of every amount that does not fit into a long, null for all other amounts.
+     */
+    private final String[] overflowedAmounts;
+
+    /**
+     * Instantiates new ParsedParameters without name and part entries.
+     *
+     * @param text the parameter text
+     */
+    ParsedParameters(String text) {
+        this(text, null, NO_PART_NAMES, NO_PART_AMOUNTS, NO_PART_NAMES);
+    }
+
+    /**
+     * Instantiates new ParsedParameters, taking ownership of the given arrays.
+     *
+     * @param text the parameter text
+     * @param name the assembly name
+     * @param partNames the names of the part entries
+     * @param partAmounts the amounts of the part entries
+     * @param overflowedAmounts the text of every amount that does not fit into a long, null for all other amounts
+     */
+    ParsedParameters(String text, String name, String[] partNames, long[] partAmounts, String[] overflowedAmounts) {
+        this.text = text;
+        this.name = name;
+        this.partNames = partNames;
+        this.partAmounts = partAmounts;
+        this.overflowedAmounts = overflowedAmounts;
+    }
+
+    /**
+     * Gets the parameter text.
+     *
+     * @return the text, empty if no parameters have been passed
+     */
+    String getText() {
+        return text;
+    }
+
+    /**
+     * Gets the assembly name.
+     *
+     * @return the name or null if the syntax has no name
+     */
+    String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the amount of part entries.
+     *
+     * @return the amount of part entries
+     */
+    int getPartCount() {
+        return partNames.length;
+    }
+
+    /**
+     * Gets the name of a part entry.
+     *
+     * @param index the index of the part entry
+     * @return the name of the part
+     */
+    String getPartName(int index) {
+        return partNames[index];
+    }
+
+    /**
+     * Gets the amount of a part entry.
+     *
+     * @param index the index of the part entry
+     * @return the amount of the part
+     * @throws InvalidPartAmountException when the amount does not fit into a long
+     */
+    long getPartAmount(int index) throws InvalidPartAmountException {
+        if (overflowedAmounts[index] != null) {
+            throw new InvalidPartAmountException(name, partNames[index], overflowedAmounts[index]);
+        }
+        return partAmounts[index];
+    }
+
+    /**
+     * Gets the amount of a part entry as the demanded amount of a BOM.
+     *
+     * @param index the index of the part entry
+     * @return the demanded amount of the BOM
+     * @throws InvalidDemandException when the amount does not fit into a long
+     */
+    long getDemand(int index) throws InvalidDemandException {
+        if (overflowedAmounts[index] != null) {
+            throw new InvalidDemandException(partNames[index], overflowedAmounts[index]);
+        }
+        return partAmounts[index];
+    }
+}
@@ -0,0 +1,71 @@
+package edu.kit.informatik.ui;
+
+import edu.kit.informatik.util.AtomicFiles;
+import edu.kit.informatik.util.DaemonExecutors;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically writes the stats of all instructions to a file, so they can be watched by external monitoring.
+ *
+ * The file is replaced atomically, so a reader never sees a partially written report.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+final class StatsExport {
+    private static final String THREAD_NAME = "stats-export";
+
+    private final Path file;
+
+    /**
+     * Instantiates a new StatsExport.
+     *
+     * @param file the file to write the stats to
+     */
+    StatsExport(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Writes the stats once and then again after every interval in the background until the program terminates.
+     * A failed periodic write is retried after the next interval.
+     *
+     * @param intervalSeconds the interval in seconds
+     * @throws IOException when the first write fails
+     */
+    void start(long intervalSeconds) throws IOException {
+        write();
+        ScheduledExecutorService executor = DaemonExecutors.newSingleThreadScheduledExecutor(THREAD_NAME);
+        executor.scheduleAtFixedRate(() -> {
+            try {
+                write();
+            } catch (IOException e) {
+                // the file may be writable again at the next interval
+            }
+        }, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Writes the current stats to the file.
+     *
+     * @throws IOException when the file cannot be written
+     */
+    private void write() throws IOException {
+        StringBuilder report = new StringBuilder();
+        for (String line : CommandStats.formatReport(CommandList.getStats())) {
+            report.append(line).append(System.lineSeparator());
+        }
+        ByteBuffer content = StandardCharsets.UTF_8.encode(report.toString());
+        AtomicFiles.replace(file, channel -> {
+            while (content.hasRemaining()) {
+                channel.write(content);
+            }
+        });
+    }
+}
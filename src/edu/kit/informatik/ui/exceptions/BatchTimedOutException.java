@@ -0,0 +1,20 @@
+package edu.kit.informatik.ui.exceptions;
+
+import edu.kit.informatik.ui.strings.ExceptionMessage;
+
+/**
+ * An exception thrown when a client of the server has started a batch and sent no input for too long.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+public class BatchTimedOutException extends InputException {
+    /**
+     * Instantiates a new BatchTimedOutException.
+     *
+     * @param idleSeconds the time without input in seconds
+     */
+    public BatchTimedOutException(long idleSeconds) {
+        super(ExceptionMessage.BATCH_TIMED_OUT, idleSeconds);
+    }
+}
@@ -0,0 +1,20 @@
+package edu.kit.informatik.ui.exceptions;
+
+import edu.kit.informatik.ui.strings.ExceptionMessage;
+
+/**
+ * An exception thrown when a file specified by the user cannot be read.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+public class FileNotReadableException extends InputException {
+    /**
+     * Instantiates a new FileNotReadableException.
+     *
+     * @param fileName the name of the file
+     */
+    public FileNotReadableException(String fileName) {
+        super(ExceptionMessage.FILE_NOT_READABLE, fileName);
+    }
+}
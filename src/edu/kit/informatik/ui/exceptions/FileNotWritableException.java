@@ -0,0 +1,20 @@
+package edu.kit.informatik.ui.exceptions;
+
+import edu.kit.informatik.ui.strings.ExceptionMessage;
+
+/**
+ * An exception thrown when a file specified by the user cannot be written.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+public class FileNotWritableException extends InputException {
+    /**
+     * Instantiates a new FileNotWritableException.
+     *
+     * @param fileName the name of the file
+     */
+    public FileNotWritableException(String fileName) {
+        super(ExceptionMessage.FILE_NOT_WRITABLE, fileName);
+    }
+}
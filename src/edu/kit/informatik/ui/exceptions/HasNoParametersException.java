@@ -17,6 +17,6 @@ public class HasNoParametersException extends InputException {
      * @param params      the parameters for the instruction
      */
     public HasNoParametersException(String instruction, String params) {
-        super(String.format(ExceptionMessage.COMMAND_HAS_NO_PARAMETERS.toString(), instruction, params));
+        super(ExceptionMessage.COMMAND_HAS_NO_PARAMETERS, instruction, params);
     }
 }
@@ -1,12 +1,19 @@
 package edu.kit.informatik.ui.exceptions;
 
+import edu.kit.informatik.ui.strings.ExceptionMessage;
+import edu.kit.informatik.ui.strings.TemplatedException;
+
 /**
  * An general Input exception thrown when the user enters invalid commands.
  *
+ * Covers the errors of the user interface rather than of the product structure,
+ * such as unknown instructions, malformed parameters, unusable files and failing connections.
+ *
  * @author Linus Schilpp
  * @version 1.0
  */
-public abstract class InputException extends Exception {
+public abstract class InputException extends TemplatedException {
+
     /**
      * Instantiates a new InputException.
      *
@@ -15,4 +22,14 @@ public abstract class InputException extends Exception {
     public InputException(String msg) {
         super(msg);
     }
+
+    /**
+     * Instantiates a new InputException whose message is formatted from a template once it is requested.
+     *
+     * @param template the template of the message
+     * @param arguments the arguments of the template
+     */
+    protected InputException(ExceptionMessage template, Object... arguments) {
+        super(template, arguments);
+    }
 }
@@ -0,0 +1,20 @@
+package edu.kit.informatik.ui.exceptions;
+
+import edu.kit.informatik.ui.strings.ExceptionMessage;
+
+/**
+ * An exception thrown when a client of the server calls an instruction that accesses files.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+public class InstructionNotPermittedException extends InputException {
+    /**
+     * Instantiates a new InstructionNotPermittedException.
+     *
+     * @param instruction the instruction
+     */
+    public InstructionNotPermittedException(String instruction) {
+        super(ExceptionMessage.INSTRUCTION_NOT_PERMITTED, instruction);
+    }
+}
@@ -15,6 +15,6 @@ public class InvalidInstructionException extends InputException {
      * @param instruction the instruction
      */
     public InvalidInstructionException(String instruction) {
-        super(String.format(ExceptionMessage.INVALID_INSTRUCTION.toString(), instruction));
+        super(ExceptionMessage.INVALID_INSTRUCTION, instruction);
     }
 }
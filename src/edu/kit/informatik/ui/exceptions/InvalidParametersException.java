@@ -15,6 +15,6 @@ public class InvalidParametersException extends InputException {
      * @param usageSyntax The syntax of the parameters
      */
     public InvalidParametersException(String usageSyntax) {
-        super(String.format(ExceptionMessage.INVALID_PARAMETERS.toString(), usageSyntax));
+        super(ExceptionMessage.INVALID_PARAMETERS, usageSyntax);
     }
 }
@@ -0,0 +1,20 @@
+package edu.kit.informatik.ui.exceptions;
+
+import edu.kit.informatik.ui.strings.ExceptionMessage;
+
+/**
+ * An exception thrown when the server cannot listen on the port specified by the user.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+public class ServerNotStartableException extends InputException {
+    /**
+     * Instantiates a new ServerNotStartableException.
+     *
+     * @param port the port
+     */
+    public ServerNotStartableException(int port) {
+        super(ExceptionMessage.SERVER_NOT_STARTABLE, port);
+    }
+}
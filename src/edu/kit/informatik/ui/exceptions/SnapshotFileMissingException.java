@@ -0,0 +1,18 @@
+package edu.kit.informatik.ui.exceptions;
+
+import edu.kit.informatik.ui.strings.ExceptionMessage;
+
+/**
+ * An exception thrown when a checkpoint is requested although no snapshot file has been specified at startup.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+public class SnapshotFileMissingException extends InputException {
+    /**
+     * Instantiates a new SnapshotFileMissingException.
+     */
+    public SnapshotFileMissingException() {
+        super(ExceptionMessage.SNAPSHOT_FILE_MISSING);
+    }
+}
@@ -53,6 +53,11 @@ public enum ExceptionMessage {
      */
     INVALID_PART_AMOUNT_STRING("the amount for the component %s in the BOM %s is too high: %s"),
 
+    /**
+     * The error message for an InvalidDemandException.
+     */
+    INVALID_DEMAND("the demand for the BOM %s is too high: %s"),
+
     /**
      * The error message for an PartAmountNotExistingException.
      */
@@ -66,7 +71,72 @@ public enum ExceptionMessage {
     /**
      * The error message for an PartNotExistingException.
      */
-    PART_NOT_EXISTING("the BOM %s does not contain the specified part: %s");
+    PART_NOT_EXISTING("the BOM %s does not contain the specified part: %s"),
+
+    /**
+     * The error message for an PartUnknownException.
+     */
+    PART_UNKNOWN("no BOM or component exists in the system for the specified name: %s"),
+
+    /**
+     * The error message for an BatchActiveException.
+     */
+    BATCH_ACTIVE("a batch has already been started"),
+
+    /**
+     * The error message for an BatchNotActiveException.
+     */
+    BATCH_NOT_ACTIVE("no batch has been started"),
+
+    /**
+     * The error message for an FileNotReadableException.
+     */
+    FILE_NOT_READABLE("the file %s cannot be read"),
+
+    /**
+     * The error message for an FileNotWritableException.
+     */
+    FILE_NOT_WRITABLE("the file %s cannot be written"),
+
+    /**
+     * The error message for an InvalidSnapshotException.
+     */
+    INVALID_SNAPSHOT("the file %s is no valid snapshot"),
+
+    /**
+     * The error message for an InvalidJournalException.
+     */
+    INVALID_JOURNAL("the file %s is no valid journal for the loaded product structure"),
+
+    /**
+     * The error message for an JournalActiveException.
+     */
+    JOURNAL_ACTIVE("not possible while a journal is being written"),
+
+    /**
+     * The error message for an CheckpointRunningException.
+     */
+    CHECKPOINT_RUNNING("the last checkpoint is still running"),
+
+    /**
+     * The error message for an SnapshotFileMissingException.
+     */
+    SNAPSHOT_FILE_MISSING("no snapshot file has been specified at startup"),
+
+    /**
+     * The error message for an ServerNotStartableException.
+     */
+    SERVER_NOT_STARTABLE("the server cannot listen on port %d"),
+
+    /**
+     * The error message for an InstructionNotPermittedException.
+     */
+    INSTRUCTION_NOT_PERMITTED("%s accesses files and is not permitted for clients of the server"),
+
+    /**
+     * The error message for a BatchTimedOutException.
+     */
+    BATCH_TIMED_OUT("the batch has been discarded after %d seconds without input");
 
 
     private final String message;
@@ -80,6 +150,16 @@ public enum ExceptionMessage {
         this.message = message;
     }
 
+    /**
+     * Formats the message with the given arguments.
+     *
+     * @param arguments the arguments referenced by the format specifiers of the message
+     * @return the formatted message, the message itself if there are no arguments
+     */
+    public String format(Object... arguments) {
+        return arguments.length == 0 ? message : String.format(message, arguments);
+    }
+
     @Override
     public String toString() {
         return this.message;
@@ -0,0 +1,62 @@
+package edu.kit.informatik.ui.strings;
+
+/**
+ * The base of all exceptions reporting an error to the user, with a message built from an ExceptionMessage.
+ *
+ * Such exceptions are part of the regular validation of every input line, so they capture no stack trace.
+ * Their message is only formatted once it is requested and then kept, since many of them are caught
+ * without ever printing it.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+public abstract class TemplatedException extends Exception {
+    private final ExceptionMessage template;
+    private final Object[] arguments;
+    /**
+     * The formatted message, null until it is requested for the first time.
+     */
+    private String message;
+
+    /**
+     * Instantiates a new TemplatedException with a message that needs no formatting.
+     *
+     * @param message the error message
+     */
+    protected TemplatedException(String message) {
+        super(message, null, false, false);
+        this.template = null;
+        this.arguments = null;
+        this.message = message;
+    }
+
+    /**
+     * Instantiates a new TemplatedException whose message is formatted from a template once it is requested.
+     *
+     * @param template the template of the message
+     * @param arguments the arguments of the template
+     */
+    protected TemplatedException(ExceptionMessage template, Object... arguments) {
+        super(null, null, false, false);
+        this.template = template;
+        this.arguments = arguments;
+    }
+
+    @Override
+    public String getMessage() {
+        if (message == null) {
+            message = formatMessage();
+        }
+        return message;
+    }
+
+    /**
+     * Formats the message from the template and its arguments.
+     * Subclasses whose arguments need preparation, such as joining a trace, override this instead.
+     *
+     * @return the message
+     */
+    protected String formatMessage() {
+        return template.format(arguments);
+    }
+}
@@ -0,0 +1,77 @@
+package edu.kit.informatik.util;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Replaces files atomically and durably, so a reader or a crash never leaves a partially written file behind.
+ *
+ * The content is written to a temporary file next to the file and forced to disk, the temporary file is
+ * then moved over the file and finally the directory is forced to disk, so the move itself survives a crash.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+public final class AtomicFiles {
+    private static final String TEMPORARY_FILE_SUFFIX = ".tmp";
+
+    private AtomicFiles() {
+        throw new AssertionError("Utility class should not be instantiated");
+    }
+
+    /**
+     * Writes the content of a file to an open channel.
+     */
+    @FunctionalInterface
+    public interface ContentWriter {
+        /**
+         * Writes the whole content.
+         *
+         * @param channel the channel of the empty temporary file
+         * @throws IOException when the content cannot be written
+         */
+        void write(FileChannel channel) throws IOException;
+    }
+
+    /**
+     * Replaces a file with the content written by the given writer, creating it if it does not exist.
+     * If writing fails, the file is left unchanged.
+     *
+     * @param file the file to replace
+     * @param writer the writer of the new content
+     * @throws IOException when the file cannot be written
+     */
+    public static void replace(Path file, ContentWriter writer) throws IOException {
+        Path temporaryFile = file.resolveSibling(file.getFileName() + TEMPORARY_FILE_SUFFIX);
+        try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            writer.write(channel);
+            channel.force(false);
+        }
+        Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        forceDirectory(file.toAbsolutePath().getParent());
+    }
+
+    /**
+     * Forces the entries of a directory to disk.
+     *
+     * @param directory the directory
+     * @throws IOException when the directory cannot be forced to disk
+     */
+    private static void forceDirectory(Path directory) throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(directory, StandardOpenOption.READ);
+        } catch (IOException e) {
+            // some platforms cannot open directories, they persist the move together with the file
+            return;
+        }
+        try (FileChannel directoryChannel = channel) {
+            directoryChannel.force(true);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package edu.kit.informatik.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates executors running on named daemon threads, so background work never keeps the program alive.
+ *
+ * @author Linus Schilpp
+ * @version 1.0
+ */
+public final class DaemonExecutors {
+
+    private DaemonExecutors() {
+        throw new AssertionError("Utility class should not be instantiated");
+    }
+
+    /**
+     * Creates an executor running scheduled tasks one after another on a single daemon thread.
+     *
+     * @param threadName the name of the thread
+     * @return the executor
+     */
+    public static ScheduledExecutorService newSingleThreadScheduledExecutor(String threadName) {
+        return Executors.newSingleThreadScheduledExecutor(newThreadFactory(threadName));
+    }
+
+    /**
+     * Creates an executor running tasks on a fixed amount of daemon threads.
+     *
+     * @param threadCount the amount of threads
+     * @param threadName the name of the threads
+     * @return the executor
+     */
+    public static ExecutorService newFixedThreadPool(int threadCount, String threadName) {
+        return Executors.newFixedThreadPool(threadCount, newThreadFactory(threadName));
+    }
+
+    /**
+     * Creates an executor for long blocking tasks such as connections, which starts a virtual thread per task
+     * if the runtime provides them and otherwise a daemon thread per task that is reused by later tasks.
+     *
+     * @param threadName the name of the daemon threads
+     * @return the executor
+     */
+    public static ExecutorService newPerTaskExecutor(String threadName) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(newThreadFactory(threadName));
+        }
+    }
+
+    /**
+     * Creates a factory of daemon threads with the given name.
+     *
+     * @param threadName the name of the threads
+     * @return the factory
+     */
+    private static ThreadFactory newThreadFactory(String threadName) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,34 @@
+#!/bin/sh
+# Compiles the sources and replays every regression case against the command line interface.
+#
+# Usage: test/run.sh [case names...]
+# The input test/cases/<name>.in is fed to the program, whose output and errors together have to equal
+# test/cases/<name>.out. Cases run in the root directory, so they can refer to files like test/cases/x.txt,
+# and with a small heap, so a case fails when the program allocates according to corrupt input.
+set -e
+
+root=$(cd "$(dirname "$0")/.." && pwd)
+classes="$root/build/test-classes"
+results="$root/build/test-results"
+
+rm -rf "$classes" "$results"
+mkdir -p "$classes" "$results"
+find "$root/src" -name '*.java' > "$classes/sources.txt"
+javac -encoding UTF-8 -d "$classes" "@$classes/sources.txt"
+
+if [ $# -eq 0 ]; then
+    set -- $(cd "$root/test/cases" && ls *.in | sed 's/\.in$//')
+fi
+
+failed=0
+for name in "$@"; do
+    (cd "$root" && java -Xmx64m -cp "$classes" edu.kit.informatik.Main < "test/cases/$name.in" > "$results/$name.out" 2>&1) \
+        || true
+    if diff -u "$root/test/cases/$name.out" "$results/$name.out"; then
+        echo "PASS $name"
+    else
+        echo "FAIL $name"
+        failed=1
+    fi
+done
+exit $failed